@@ -1,14 +1,27 @@
 package edu.kit.crate;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.crate.context.CrateMetadataContext;
 import edu.kit.crate.entities.AbstractEntity;
 import edu.kit.crate.entities.contextual.ContextualEntity;
 import edu.kit.crate.entities.data.DataEntity;
 import edu.kit.crate.entities.data.RootDataEntity;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.payload.EntityGraph;
+import edu.kit.crate.payload.EntityQuery;
 import edu.kit.crate.preview.CratePreview;
+import edu.kit.crate.special.StringPool;
+import edu.kit.crate.validation.JsonSchemaValidation;
+import edu.kit.crate.validation.Validator;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * An interface describing an ROCrate.
@@ -31,20 +44,122 @@ public interface Crate {
 
   String getJsonMetadata();
 
+  /**
+   * Returns the json tree of the crate metadata.
+   * By default the text of the metadata is parsed.
+   *
+   * @return the json object of the whole metadata.
+   */
+  default ObjectNode getJsonMetadataNode() {
+    try {
+      return (ObjectNode) MyObjectMapper.getMapper().readTree(this.getJsonMetadata());
+    } catch (JsonProcessingException e) {
+      System.err.println("Exception parsing the crate metadata");
+      e.printStackTrace();
+      return MyObjectMapper.getMapper().createObjectNode();
+    }
+  }
+
+  /**
+   * Validates the crate. By default the whole metadata is checked against the default schema.
+   *
+   * @return if the crate is valid.
+   */
+  default boolean validate() {
+    return new Validator(new JsonSchemaValidation()).validate(this);
+  }
+
+  /**
+   * Writes the crate metadata to a stream, by default as the text of getJsonMetadata().
+   *
+   * @param outputStream the stream to write to, it is not closed.
+   * @throws IOException if writing fails.
+   */
+  default void writeJsonMetadata(OutputStream outputStream) throws IOException {
+    outputStream.write(this.getJsonMetadata().getBytes(StandardCharsets.UTF_8));
+  }
+
   DataEntity getDataEntityById(java.lang.String id);
 
   List<DataEntity> getAllDataEntities();
 
+  /**
+   * Returns the data entities without copying them, if the crate supports it.
+   * By default the list of all data entities is returned as read only.
+   *
+   * @return read only collection of the data entities.
+   */
+  default Collection<DataEntity> getDataEntitiesView() {
+    return Collections.unmodifiableList(this.getAllDataEntities());
+  }
+
   ContextualEntity getContextualEntityById(java.lang.String id);
 
   AbstractEntity getEntityById(java.lang.String id);
 
+  default Collection<AbstractEntity> getEntitiesByType(String type) {
+    throw new UnsupportedOperationException("getEntitiesByType");
+  }
+
+  /**
+   * Declares a hash index on a property, used by {@link #query()}.
+   * Indexes only speed up queries, so by default nothing is done.
+   *
+   * @param propertyKey the key of the property.
+   */
+  default void addHashIndex(String propertyKey) {
+  }
+
+  /**
+   * Declares a sorted index on a property, used by {@link #query()}.
+   * Indexes only speed up queries, so by default nothing is done.
+   *
+   * @param propertyKey the key of the property.
+   */
+  default void addSortedIndex(String propertyKey) {
+  }
+
+  default EntityQuery query() {
+    throw new UnsupportedOperationException("query");
+  }
+
+  default EntityGraph getGraph() {
+    throw new UnsupportedOperationException("getGraph");
+  }
+
+  /**
+   * Stores the entities of the crate in a more compact form, if the crate supports it.
+   * By default nothing is done.
+   */
+  default void compactEntities() {
+  }
+
+  /**
+   * Returns the pool used for the strings of the entities of the crate.
+   *
+   * @return the pool, or null if the crate does not have one.
+   */
+  default StringPool getStringPool() {
+    return null;
+  }
+
   void addDataEntity(DataEntity entity, Boolean toHasPart);
 
   void addContextualEntity(ContextualEntity entity);
 
   void deleteEntityById(String entityId);
 
+  /**
+   * Deletes all the entities with these ids, by default one after the other.
+   *
+   * @param entityIds the ids of the entities to delete.
+   */
+  default void deleteEntitiesByIds(Set<String> entityIds) {
+    for (String id : entityIds) {
+      this.deleteEntityById(id);
+    }
+  }
+
   void setUntrackedFiles(List<File> files);
 
   void addFromCollection(Collection<AbstractEntity> entities);
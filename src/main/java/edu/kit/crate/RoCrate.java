@@ -1,5 +1,6 @@
 package edu.kit.crate;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -12,15 +13,27 @@ import edu.kit.crate.entities.data.RootDataEntity;
 import edu.kit.crate.externalproviders.dataentities.ImportFromDataCite;
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import edu.kit.crate.payload.CratePayload;
+import edu.kit.crate.payload.EntityGraph;
+import edu.kit.crate.payload.EntityQuery;
+import edu.kit.crate.payload.LazyEntitySource;
+import edu.kit.crate.payload.ReferenceIndex;
 import edu.kit.crate.payload.RoCratePayload;
 import edu.kit.crate.preview.CratePreview;
 import edu.kit.crate.special.JsonUtilFunctions;
-import edu.kit.crate.validation.JsonSchemaValidation;
-import edu.kit.crate.validation.Validator;
+import edu.kit.crate.special.StringPool;
+import edu.kit.crate.validation.EntityValidationReport;
+import edu.kit.crate.validation.IncrementalValidation;
+import edu.kit.crate.validation.ParallelEntityValidation;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The class that represents a single ROCrate.
@@ -34,6 +47,12 @@ public class RoCrate implements Crate {
   private static final String RO_SPEC = "https://w3id.org/ro/crate/1.1";
 
   private final CratePayload roCratePayload;
+  private final IncrementalValidation validation;
+  // references held by the root data entity and the metadata descriptor
+  private final ReferenceIndex crateEntitiesReferences;
+  // entities added in a batch whose context check waits for the commit
+  private final Set<String> uncheckedEntities = new LinkedHashSet<>();
+  private int batchDepth = 0;
   private CrateMetadataContext metadataContext;
   private CratePreview roCratePreview;
   private RootDataEntity rootDataEntity;
@@ -41,6 +60,8 @@ public class RoCrate implements Crate {
 
   private List<File> untrackedFiles;
 
+  private LazyEntitySource lazyEntities;
+
   @Override
   public CratePreview getPreview() {
     return this.roCratePreview;
@@ -58,16 +79,30 @@ public class RoCrate implements Crate {
     return jsonDescriptor;
   }
 
+  /**
+   * Sets the metadata descriptor of the crate.
+   *
+   * @param jsonDescriptor the new descriptor.
+   */
   public void setJsonDescriptor(ContextualEntity jsonDescriptor) {
+    this.crateEntitiesReferences.untrack(this.jsonDescriptor);
     this.jsonDescriptor = jsonDescriptor;
+    this.crateEntitiesReferences.track(jsonDescriptor);
   }
 
   public RootDataEntity getRootDataEntity() {
     return rootDataEntity;
   }
 
+  /**
+   * Sets the root data entity of the crate.
+   *
+   * @param rootDataEntity the new root data entity.
+   */
   public void setRootDataEntity(RootDataEntity rootDataEntity) {
+    this.crateEntitiesReferences.untrack(this.rootDataEntity);
     this.rootDataEntity = rootDataEntity;
+    this.crateEntitiesReferences.track(rootDataEntity);
   }
 
   /**
@@ -75,6 +110,8 @@ public class RoCrate implements Crate {
    */
   public RoCrate() {
     this.roCratePayload = new RoCratePayload();
+    this.validation = new IncrementalValidation(this.roCratePayload);
+    this.crateEntitiesReferences = new ReferenceIndex();
     this.metadataContext = new RoCrateMetadataContext();
     this.untrackedFiles = new ArrayList<>();
   }
@@ -86,17 +123,74 @@ public class RoCrate implements Crate {
    */
   public RoCrate(RoCrateBuilder roCrateBuilder) {
     this.roCratePayload = roCrateBuilder.payload;
+    this.validation = new IncrementalValidation(this.roCratePayload);
     this.metadataContext = roCrateBuilder.metadataContext;
     this.roCratePreview = roCrateBuilder.preview;
     this.rootDataEntity = roCrateBuilder.rootDataEntity;
     this.jsonDescriptor = roCrateBuilder.jsonDescriptor;
+    this.crateEntitiesReferences = new ReferenceIndex();
+    this.crateEntitiesReferences.track(this.rootDataEntity);
+    this.crateEntitiesReferences.track(this.jsonDescriptor);
     this.untrackedFiles = roCrateBuilder.untrackedFiles;
-    Validator defaultValidation = new Validator(new JsonSchemaValidation());
-    defaultValidation.validate(this);
+    this.validate();
+  }
+
+  /**
+   * Validates the crate against the default schema.
+   * Only the entities that changed since the last validation are checked again,
+   * together with the root data entity and the metadata descriptor.
+   *
+   * @return if the crate is valid.
+   */
+  @Override
+  public boolean validate() {
+    return this.validation.validate(this.rootDataEntity, this.jsonDescriptor);
+  }
+
+  /**
+   * Sets the pool on which validate() checks the changed entities.
+   *
+   * @param pool the pool to use, or null to validate on the calling thread.
+   */
+  public void setValidationPool(ForkJoinPool pool) {
+    this.validation.setPool(pool);
+  }
+
+  /**
+   * Validates every entity of the crate on the given pool, both against the entity schema
+   * and for terms missing from the crate context.
+   *
+   * @param pool the pool on which the entities are validated.
+   * @return the merged report of all the entities.
+   */
+  public EntityValidationReport validateEntities(ForkJoinPool pool) {
+    this.materializeAll();
+    List<AbstractEntity> entities = new ArrayList<>();
+    this.roCratePayload.forEachEntity(entities::add);
+    if (this.rootDataEntity != null) {
+      entities.add(this.rootDataEntity);
+    }
+    if (this.jsonDescriptor != null) {
+      entities.add(this.jsonDescriptor);
+    }
+    return new ParallelEntityValidation(pool, this.metadataContext).validate(entities);
   }
 
   @Override
   public String getJsonMetadata() {
+    return this.getJsonMetadataNode().toString();
+  }
+
+  /**
+   * Builds the json tree of the crate metadata directly from the entities.
+   * It can be used (e.g. for validation) without serializing the crate to text
+   * and parsing it back.
+   *
+   * @return the json object of the whole metadata.
+   */
+  @Override
+  public ObjectNode getJsonMetadataNode() {
+    this.materializeAll();
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
     ObjectNode node = objectMapper.createObjectNode();
 
@@ -111,32 +205,235 @@ public class RoCrate implements Crate {
       graph.addAll(this.roCratePayload.getEntitiesMetadata());
     }
     node.set("@graph", graph);
-    return node.toString();
+    return node;
+  }
+
+  /**
+   * Writes the metadata of the crate directly to an output stream.
+   * In contrast to getJsonMetadata the json document is never kept as a whole in memory,
+   * every entity is serialized on its own straight to the stream.
+   * The stream is not closed after the writing.
+   *
+   * @param outputStream the stream where the pretty printed metadata is written.
+   * @throws IOException if the writing to the stream fails.
+   */
+  @Override
+  public void writeJsonMetadata(OutputStream outputStream) throws IOException {
+    this.materializeAll();
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.useDefaultPrettyPrinter();
+      generator.writeStartObject();
+      var context = this.metadataContext.getContextJsonEntity().fields();
+      while (context.hasNext()) {
+        var field = context.next();
+        generator.writeFieldName(field.getKey());
+        generator.writeTree(field.getValue());
+      }
+      generator.writeArrayFieldStart("@graph");
+      generator.writeObject(this.rootDataEntity);
+      generator.writeObject(this.jsonDescriptor);
+      if (this.roCratePayload != null) {
+        for (AbstractEntity entity : this.roCratePayload.getAllEntitiesView()) {
+          generator.writeObject(entity);
+        }
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
   }
 
   @Override
   public DataEntity getDataEntityById(java.lang.String id) {
+    this.materialize(id);
     return this.roCratePayload.getDataEntityById(id);
   }
 
   @Override
   public List<DataEntity> getAllDataEntities() {
+    this.materializeAll();
     return this.roCratePayload.getAllDataEntities();
   }
 
+  /**
+   * Returns an unmodifiable live view of the data entities of the crate.
+   * Unlike getAllDataEntities() nothing is copied.
+   *
+   * @return the view of the data entities.
+   */
+  @Override
+  public Collection<DataEntity> getDataEntitiesView() {
+    this.materializeAll();
+    return this.roCratePayload.getDataEntitiesView();
+  }
+
   @Override
   public ContextualEntity getContextualEntityById(String id) {
+    this.materialize(id);
     return this.roCratePayload.getContextualEntityById(id);
   }
 
   @Override
   public AbstractEntity getEntityById(String id) {
+    this.materialize(id);
     return this.roCratePayload.getEntityById(id);
   }
 
+  /**
+   * Sets the source of the entities that are not built yet, used when a crate is opened lazily.
+   * An entity is built from the source the first time it is looked up by id or type.
+   * Everything that needs all the entities (writing, deleting, listing the data entities, etc.)
+   * builds all the remaining ones first.
+   *
+   * @param lazyEntities the source of the entities.
+   */
+  public void setLazyEntitySource(LazyEntitySource lazyEntities) {
+    this.lazyEntities = lazyEntities;
+  }
+
+  private void materialize(String id) {
+    if (this.lazyEntities != null && this.lazyEntities.contains(id)) {
+      this.addMaterialized(this.lazyEntities.materialize(id));
+    }
+  }
+
+  private void materializeAll() {
+    if (this.lazyEntities == null) {
+      return;
+    }
+    LazyEntitySource source = this.lazyEntities;
+    this.lazyEntities = null;
+    try (Batch batch = this.startBatch()) {
+      for (String id : new ArrayList<>(source.getIds())) {
+        this.addMaterialized(source.materialize(id));
+      }
+    }
+    if (!source.getIds().isEmpty()) {
+      // they are kept, so the next lookups can try to build them again
+      System.err.println(source.getIds().size() + " entities of the crate could not be built.");
+      this.lazyEntities = source;
+    }
+  }
+
+  private void addMaterialized(AbstractEntity entity) {
+    if (entity instanceof DataEntity) {
+      this.addDataEntity((DataEntity) entity, false);
+    } else if (entity instanceof ContextualEntity) {
+      this.addContextualEntity((ContextualEntity) entity);
+    }
+  }
+
+  /**
+   * Returns the entities of the payload with the given type,
+   * the root data entity and the descriptor are not included.
+   *
+   * @param type the type of the entities.
+   * @return unmodifiable view of the entities.
+   */
+  @Override
+  public Collection<AbstractEntity> getEntitiesByType(String type) {
+    if (this.lazyEntities != null) {
+      for (String id : new ArrayList<>(this.lazyEntities.getIdsByType(type))) {
+        this.materialize(id);
+      }
+    }
+    return this.roCratePayload.getEntitiesByType(type);
+  }
+
+  /**
+   * Declares a hash index on a property of the payload entities,
+   * used by queries for equality conditions.
+   *
+   * @param propertyKey the key of the property.
+   */
+  @Override
+  public void addHashIndex(String propertyKey) {
+    this.materializeAll();
+    this.roCratePayload.addHashIndex(propertyKey);
+  }
+
+  /**
+   * Declares a sorted index on a property of the payload entities,
+   * used by queries for equality and range conditions.
+   *
+   * @param propertyKey the key of the property.
+   */
+  @Override
+  public void addSortedIndex(String propertyKey) {
+    this.materializeAll();
+    this.roCratePayload.addSortedIndex(propertyKey);
+  }
+
+  /**
+   * Starts a query over the entities of the payload by the values of their properties,
+   * the root data entity and the descriptor are not included.
+   *
+   * @return the new query.
+   */
+  @Override
+  public EntityQuery query() {
+    this.materializeAll();
+    return this.roCratePayload.query();
+  }
+
+  /**
+   * Returns the graph of all the entities of the crate and their links,
+   * including the root data entity and the descriptor.
+   *
+   * @return the graph of the crate.
+   */
+  @Override
+  public EntityGraph getGraph() {
+    return new EntityGraph(this::getAnyEntityById, id -> {
+      Set<String> links = this.crateEntitiesReferences.getOutgoing(id);
+      if (links.isEmpty()) {
+        return this.roCratePayload.getReferencedIds(id);
+      }
+      links = new HashSet<>(links);
+      links.addAll(this.roCratePayload.getReferencedIds(id));
+      return links;
+    });
+  }
+
+  /**
+   * Moves the properties of the entities in the payload to a compact store
+   * that shares the property keys and the text values between entities.
+   * This saves memory for big crates with many similar entities,
+   * the entities stay readable and are expanded again when changed.
+   */
+  @Override
+  public void compactEntities() {
+    this.materializeAll();
+    this.roCratePayload.compactEntities();
+  }
+
+  /**
+   * Returns the string pool of the crate. Giving it to the entity builders
+   * (setStringPool) lets the new entities share their repeated strings with the crate.
+   *
+   * @return the string pool of the crate.
+   */
+  @Override
+  public StringPool getStringPool() {
+    return this.roCratePayload.getStringPool();
+  }
+
+  private AbstractEntity getAnyEntityById(String id) {
+    if (this.rootDataEntity != null && this.rootDataEntity.getId().equals(id)) {
+      return this.rootDataEntity;
+    }
+    if (this.jsonDescriptor != null && this.jsonDescriptor.getId().equals(id)) {
+      return this.jsonDescriptor;
+    }
+    return this.getEntityById(id);
+  }
+
   @Override
   public void addDataEntity(DataEntity entity, Boolean toHasPart) {
-    this.metadataContext.checkEntity(entity);
+    // an entity with the same id that is not built yet is replaced as well
+    this.materialize(entity.getId());
+    this.checkEntity(entity);
     this.roCratePayload.addDataEntity(entity);
     if (toHasPart) {
       this.rootDataEntity.addToHasPart(entity.getId());
@@ -145,19 +442,49 @@ public class RoCrate implements Crate {
 
   @Override
   public void addContextualEntity(ContextualEntity entity) {
-    this.metadataContext.checkEntity(entity);
+    this.materialize(entity.getId());
+    this.checkEntity(entity);
     this.roCratePayload.addContextualEntity(entity);
   }
 
   @Override
   public void deleteEntityById(String entityId) {
+    // every entity could reference the deleted one
+    this.materializeAll();
     // delete the entity firstly
     this.roCratePayload.removeEntityById(entityId);
-    // remove from the root data entity hasPart
-    this.rootDataEntity.removeFromHasPart(entityId);
     // remove from the root entity and the file descriptor
-    JsonUtilFunctions.removeFieldsWith(entityId, this.rootDataEntity.getProperties());
-    JsonUtilFunctions.removeFieldsWith(entityId, this.jsonDescriptor.getProperties());
+    this.removeFromCrateEntities(Set.of(entityId));
+  }
+
+  /**
+   * Deletes all the entities with these ids and every reference to them in a single pass,
+   * instead of one pass per entity.
+   *
+   * @param entityIds the ids of the entities to delete.
+   */
+  @Override
+  public void deleteEntitiesByIds(Set<String> entityIds) {
+    this.materializeAll();
+    this.roCratePayload.removeEntitiesByIds(entityIds);
+    this.removeFromCrateEntities(entityIds);
+  }
+
+  private void removeFromCrateEntities(Set<String> entityIds) {
+    this.crateEntitiesReferences.removeReferencesTo(entityIds);
+    // remove from the root data entity hasPart
+    this.rootDataEntity.removeFromHasPart(entityIds);
+    // plain string values are not indexed, there are only two entities to check
+    for (AbstractEntity entity : new AbstractEntity[] {this.rootDataEntity, this.jsonDescriptor}) {
+      if (entity == null) {
+        continue;
+      }
+      ObjectNode values = entity.readProperties();
+      if (!JsonUtilFunctions.removeValuesFrom(entityIds, values).isEmpty()
+          && entity.isCompact()) {
+        entity.setProperties(values);
+      }
+    }
   }
 
   @Override
@@ -180,6 +507,79 @@ public class RoCrate implements Crate {
     return this.untrackedFiles;
   }
 
+  private void checkEntity(AbstractEntity entity) {
+    if (this.batchDepth > 0) {
+      this.uncheckedEntities.add(entity.getId());
+    } else {
+      this.metadataContext.checkEntity(entity);
+    }
+  }
+
+  /**
+   * Starts a batch of changes on the crate, to be used with try-with-resources.
+   * Inside the batch the changes of entities are only collected. Indexing of the
+   * references, the context checks and the validation run once for every touched
+   * entity when the batch is committed (or closed).
+   * Batches can be nested, only the outermost one commits.
+   *
+   * @return the batch that has to be committed or closed.
+   */
+  public Batch startBatch() {
+    if (this.batchDepth++ == 0) {
+      this.crateEntitiesReferences.setDeferred(true);
+      this.roCratePayload.startBatch();
+    }
+    return new Batch(this);
+  }
+
+  private boolean endBatch() {
+    if (--this.batchDepth > 0) {
+      return true;
+    }
+    this.crateEntitiesReferences.setDeferred(false);
+    this.roCratePayload.endBatch();
+    for (String id : this.uncheckedEntities) {
+      AbstractEntity entity = this.getEntityById(id);
+      if (entity != null) {
+        this.metadataContext.checkEntity(entity);
+      }
+    }
+    this.uncheckedEntities.clear();
+    return this.validate();
+  }
+
+  /**
+   * A batch of changes on a crate, see {@link RoCrate#startBatch()}.
+   */
+  public static final class Batch implements AutoCloseable {
+
+    private final RoCrate crate;
+    private boolean committed;
+
+    private Batch(RoCrate crate) {
+      this.crate = crate;
+      this.committed = false;
+    }
+
+    /**
+     * Commits the changes of the batch. Calling it more than once has no effect.
+     *
+     * @return if the crate is valid after the batch, always true for a nested batch.
+     */
+    public boolean commit() {
+      if (this.committed) {
+        return true;
+      }
+      this.committed = true;
+      return this.crate.endBatch();
+    }
+
+    @Override
+    public void close() {
+      this.commit();
+    }
+  }
+
   /**
    * The inner class builder for the easier creation of a ROCrate.
    */
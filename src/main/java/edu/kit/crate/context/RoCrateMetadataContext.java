@@ -11,7 +11,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -27,13 +29,18 @@ import org.apache.http.impl.client.HttpClients;
 public class RoCrateMetadataContext implements CrateMetadataContext {
 
   private static final String DEFAULT_CONTEXT = "https://w3id.org/ro/crate/1.1/context";
-  private static final String DEFAULT_CONTEXT_LOCATION = "default_context/version1.1.json";
-  private static JsonNode defaultContext = null;
+  // the context versions that are shipped together with the library
+  private static final Map<String, String> BUNDLED_CONTEXTS = Map.of(
+      DEFAULT_CONTEXT, "default_context/version1.1.json");
+  // process-wide cache of the immutable term tables, shared by all the crates
+  private static final Map<String, Map<String, String>> sharedContexts =
+      new ConcurrentHashMap<>();
 
   private final List<String> url;
-  private final HashMap<String, String> contextMap;
+  // the shared term tables of the url contexts, they are never modified
+  private final List<Map<String, String>> urlContexts;
   // we need to keep the ones that are no coming from url
-  // for the final representation
+  // for the final representation, they are also the overlay over the shared tables
   private final HashMap<String, String> other;
 
   /**
@@ -41,7 +48,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
    */
   public RoCrateMetadataContext() {
     this.url = new ArrayList<>();
-    this.contextMap = new HashMap<>();
+    this.urlContexts = new ArrayList<>();
     this.other = new HashMap<>();
     this.addToContextFromUrl(DEFAULT_CONTEXT);
   }
@@ -53,7 +60,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
    */
   public RoCrateMetadataContext(List<String> url) {
     this.url = new ArrayList<>();
-    this.contextMap = new HashMap<>();
+    this.urlContexts = new ArrayList<>();
     this.other = new HashMap<>();
     for (String e : url) {
       this.addToContextFromUrl(e);
@@ -67,15 +74,14 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
    */
   public RoCrateMetadataContext(JsonNode context) {
     this.url = new ArrayList<>();
+    this.urlContexts = new ArrayList<>();
     this.other = new HashMap<>();
-    this.contextMap = new HashMap<>();
 
     Consumer<JsonNode> addPairs = x -> {
       var iterate = x.fields();
       while (iterate.hasNext()) {
         var next = iterate.next();
         this.other.put(next.getKey(), next.getValue().asText());
-        this.contextMap.put(next.getKey(), next.getValue().asText());
       }
     };
     if (context.isArray()) {
@@ -139,16 +145,16 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
   @Override
   public boolean checkEntity(AbstractEntity entity) {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
-    ObjectNode node = entity.getProperties().deepCopy();
+    ObjectNode node = entity.readProperties().deepCopy();
     node.remove("@id");
     node.remove("@type");
 
-    Set<String> types = objectMapper.convertValue(entity.getProperties().get("@type"),
+    Set<String> types = objectMapper.convertValue(entity.readProperties().get("@type"),
         new TypeReference<>() {
         });
     // check if the items in the array of types are present in the context
     for (var s : types) {
-      if (this.contextMap.get(s) == null) {
+      if (this.getTerm(s) == null) {
         System.err.println("type " + s + " is missing from the context!");
         return false;
       }
@@ -157,7 +163,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
     // check if the fields of the entity are present in the context
     for (var names = node.fieldNames(); names.hasNext(); ) {
       String s = names.next();
-      if (this.contextMap.get(s) == null) {
+      if (this.getTerm(s) == null) {
         System.err.println("entity " + s + " is missing from context;");
         return false;
       }
@@ -171,7 +177,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
 
     // expand our node
-    ObjectNode node = entity.getProperties().deepCopy();
+    ObjectNode node = entity.readProperties().deepCopy();
     node.remove("@id");
     node.remove("@type");
     node.put("@context", "https://schema.org/");
@@ -187,7 +193,7 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
     }
 
     // get the context
-    Set<String> types = objectMapper.convertValue(entity.getProperties().get("@type"),
+    Set<String> types = objectMapper.convertValue(entity.readProperties().get("@type"),
         new TypeReference<>() {
         });
 
@@ -246,23 +252,59 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
     return true;
   }
 */
+  /**
+   * Looks up a term, first in the custom additions and then in the shared url contexts.
+   *
+   * @param term the term to look for.
+   * @return the value of the term or null if it is not in the context.
+   */
+  private String getTerm(String term) {
+    String value = this.other.get(term);
+    if (value != null) {
+      return value;
+    }
+    for (Map<String, String> urlContext : this.urlContexts) {
+      value = urlContext.get(term);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+
   @Override
   public void addToContextFromUrl(String url) {
     this.url.add(url);
+    // the term table is loaded once per process and then shared,
+    // a failed loading is not cached, so it will be retried next time.
+    // It is loaded outside of the map, so a slow fetch does not block the other urls,
+    // if two threads load it at the same time the first table stored wins.
+    Map<String, String> terms = sharedContexts.get(url);
+    if (terms == null) {
+      terms = loadContext(url);
+      if (terms != null) {
+        Map<String, String> stored = sharedContexts.putIfAbsent(url, terms);
+        if (stored != null) {
+          terms = stored;
+        }
+      }
+    }
+    if (terms != null) {
+      this.urlContexts.add(terms);
+    }
+  }
 
+  private static Map<String, String> loadContext(String url) {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
 
     JsonNode jsonNode = null;
-    if (url.equals(DEFAULT_CONTEXT)) {
-      if (defaultContext != null) {
-        jsonNode = defaultContext;
-      } else {
-        try {
-          jsonNode = objectMapper.readTree(
-              getClass().getClassLoader().getResource(DEFAULT_CONTEXT_LOCATION));
-        } catch (IOException e) {
-          e.printStackTrace();
-        }
+    String location = BUNDLED_CONTEXTS.get(url);
+    if (location != null) {
+      try {
+        jsonNode = objectMapper.readTree(
+            RoCrateMetadataContext.class.getClassLoader().getResource(location));
+      } catch (IOException e) {
+        e.printStackTrace();
       }
     }
     if (jsonNode == null) {
@@ -275,20 +317,24 @@ public class RoCrateMetadataContext implements CrateMetadataContext {
             JsonNode.class);
       } catch (IOException e) {
         System.err.println("Cannot get context from this url.");
-        return;
-      }
-      if (url.equals(DEFAULT_CONTEXT)) {
-        defaultContext = jsonNode;
+        return null;
       }
     }
-    this.contextMap.putAll(objectMapper.convertValue(jsonNode.get("@context"),
-        new TypeReference<>() {
-        }));
+    JsonNode context = jsonNode.get("@context");
+    if (context == null || !context.isObject()) {
+      return null;
+    }
+    Map<String, String> terms = new HashMap<>();
+    var itr = context.fields();
+    while (itr.hasNext()) {
+      var next = itr.next();
+      terms.put(next.getKey(), next.getValue().asText());
+    }
+    return Map.copyOf(terms);
   }
 
   @Override
   public void addToContext(String key, String value) {
-    this.contextMap.put(key, value);
     this.other.put(key, value);
   }
 }
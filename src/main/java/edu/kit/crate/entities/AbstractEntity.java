@@ -1,5 +1,6 @@
 package edu.kit.crate.entities;
 
+import com.fasterxml.jackson.annotation.JsonGetter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -7,14 +8,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.compact.CompactProperties;
+import edu.kit.crate.entities.compact.ShapeTable;
 import edu.kit.crate.entities.serializers.ObjectNodeSerializer;
 import edu.kit.crate.entities.validation.EntityValidation;
-import edu.kit.crate.entities.validation.JsonSchemaValidation;
+import edu.kit.crate.entities.validation.FlattenedStructureValidation;
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import edu.kit.crate.payload.Observer;
 import edu.kit.crate.special.JsonUtilFunctions;
+import edu.kit.crate.special.StringPool;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,12 +46,17 @@ public class AbstractEntity {
    * cases where a single array element should be displayed as a single value. ex: "key" : ["value"]
    * <=> "key" : "value"
    */
-  @JsonUnwrapped
-  @JsonSerialize(using = ObjectNodeSerializer.class)
+  @JsonIgnore
   private ObjectNode properties;
 
+  /**
+   * The properties when the entity is compacted, in that case the properties field is null.
+   */
+  @JsonIgnore
+  private CompactProperties compactProperties;
+
   private static final EntityValidation entityValidation
-      = new EntityValidation(new JsonSchemaValidation());
+      = new EntityValidation(new FlattenedStructureValidation());
 
 
   @JsonIgnore
@@ -56,6 +66,13 @@ public class AbstractEntity {
   @JsonIgnore
   private final List<Observer> observers;
 
+  /**
+   * If the live properties were handed out, they can then be changed
+   * without the entity knowing about it.
+   */
+  @JsonIgnore
+  private boolean propertiesExposed;
+
   public void addObserver(Observer observer) {
     this.observers.add(observer);
   }
@@ -66,6 +83,46 @@ public class AbstractEntity {
     }
   }
 
+  protected void notifyObservers(String propertyKey) {
+    for (var obs : this.observers) {
+      obs.update(this.getId(), propertyKey);
+    }
+  }
+
+  private void exposeProperties() {
+    if (!this.propertiesExposed) {
+      this.propertiesExposed = true;
+      for (var obs : this.observers) {
+        obs.propertiesExposed(this.getId());
+      }
+    }
+  }
+
+  /**
+   * Returns if the live properties of the entity were handed out
+   * (by getProperties() or getProperty() returning an object or an array).
+   * Changes to them are not notified, so such entities have to be checked again
+   * every time they are validated.
+   *
+   * @return true if the properties were handed out.
+   */
+  @JsonIgnore
+  public boolean isPropertiesExposed() {
+    return this.propertiesExposed;
+  }
+
+  protected void notifyReferenceAdded(String propertyKey, String referencedId) {
+    for (var obs : this.observers) {
+      obs.referenceAdded(this.getId(), propertyKey, referencedId);
+    }
+  }
+
+  protected void notifyReferenceRemoved(String propertyKey, String referencedId) {
+    for (var obs : this.observers) {
+      obs.referenceRemoved(this.getId(), propertyKey, referencedId);
+    }
+  }
+
   /**
    * Constructor that takes a builder and instantiates all the fields from it.
    *
@@ -76,6 +133,9 @@ public class AbstractEntity {
     this.properties = entityBuilder.properties;
     this.linkedTo = entityBuilder.relatedItems;
     this.observers = new ArrayList<>();
+    if (this.types != null) {
+      this.properties.set("@type", this.typesNode());
+    }
     if (this.properties.get("@id") == null) {
       if (entityBuilder.id == null) {
         this.properties.put("@id", UUID.randomUUID().toString());
@@ -91,24 +151,106 @@ public class AbstractEntity {
 
   /**
    * Returns a Json object containing the properties of the entity.
+   * Changes to the returned object change the entity, but they are not notified,
+   * so the entity is validated again on every validation of the crate from now on.
    *
    * @return ObjectNode representing the properties.
    */
+  @JsonIgnore
   public ObjectNode getProperties() {
-    if (this.types != null) {
-      JsonNode node = MyObjectMapper.getMapper().valueToTree(this.types);
-      this.properties.set("@type", node);
+    if (this.compactProperties != null) {
+      return this.compactProperties.toObjectNode();
+    }
+    this.exposeProperties();
+    return properties;
+  }
+
+  // the properties as they are serialized, the serialization only reads them
+  @JsonUnwrapped
+  @JsonSerialize(using = ObjectNodeSerializer.class)
+  @JsonGetter("serializedProperties")
+  private ObjectNode getSerializedProperties() {
+    return this.readProperties();
+  }
+
+  /**
+   * Returns the properties of the entity only for reading.
+   * The returned object must not be changed, use getProperties() for that.
+   *
+   * @return ObjectNode representing the properties.
+   */
+  public ObjectNode readProperties() {
+    if (this.compactProperties != null) {
+      return this.compactProperties.toObjectNode();
     }
     return properties;
   }
 
+  /**
+   * Returns the value of a single property.
+   * If the value is an object or an array, changes to it change the entity
+   * the same way as changes to getProperties() do.
+   *
+   * @param propertyKey the key of the property.
+   * @return the value, or null if the entity does not have the property.
+   */
   public JsonNode getProperty(String propertyKey) {
+    JsonNode value = this.readProperty(propertyKey);
+    if (value != null && value.isContainerNode() && this.compactProperties == null) {
+      this.exposeProperties();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of a single property only for reading.
+   * The returned value must not be changed, use getProperty(String) for that.
+   *
+   * @param propertyKey the key of the property.
+   * @return the value, or null if the entity does not have the property.
+   */
+  public JsonNode readProperty(String propertyKey) {
+    if (this.compactProperties != null) {
+      return this.compactProperties.get(propertyKey);
+    }
     return this.properties.get(propertyKey);
   }
 
+  /**
+   * Moves the properties of the entity to the compact store of a ShapeTable.
+   * The properties stay readable through getProperties() and getProperty(),
+   * but getProperties() returns a new object on every call,
+   * so changes have to be made through the methods of the entity.
+   * The first such change moves the properties back to a regular ObjectNode.
+   *
+   * @param shapeTable the table shared by the compacted entities of the crate.
+   */
+  public void compact(ShapeTable shapeTable) {
+    if (this.compactProperties == null) {
+      this.compactProperties = shapeTable.compact(this.properties);
+      this.properties = null;
+      this.propertiesExposed = false;
+      // the types are kept only in "@type", getTypes() reads them from there
+      this.types = null;
+    }
+  }
+
+  @JsonIgnore
+  public boolean isCompact() {
+    return this.compactProperties != null;
+  }
+
+  private ObjectNode properties() {
+    if (this.compactProperties != null) {
+      this.properties = this.compactProperties.toObjectNode();
+      this.compactProperties = null;
+    }
+    return this.properties;
+  }
+
   @JsonIgnore
   public String getId() {
-    JsonNode id = this.properties.get("@id");
+    JsonNode id = this.readProperty("@id");
     return id == null ? null : id.asText();
   }
 
@@ -122,12 +264,16 @@ public class AbstractEntity {
     // validate whole entity
     if (entityValidation.entityValidation(obj)) {
       this.properties = obj.deepCopy();
+      this.compactProperties = null;
+      this.propertiesExposed = false;
+      // the types are now the ones in "@type" of the new properties
+      this.types = null;
       this.notifyObservers();
     }
   }
 
   protected void setId(String id) {
-    this.properties.put("@id", id);
+    this.properties().put("@id", id);
   }
 
   /**
@@ -139,8 +285,8 @@ public class AbstractEntity {
    */
   public void addProperty(String key, String value) {
     if (key != null && value != null) {
-      this.properties.put(key, value);
-      this.notifyObservers();
+      this.properties().put(key, value);
+      this.notifyObservers(key);
     }
   }
 
@@ -153,8 +299,8 @@ public class AbstractEntity {
    */
   public void addProperty(String key, long value) {
     if (key != null) {
-      this.properties.put(key, value);
-      this.notifyObservers();
+      this.properties().put(key, value);
+      this.notifyObservers(key);
     }
   }
 
@@ -166,8 +312,8 @@ public class AbstractEntity {
    */
   public void addProperty(String key, double value) {
     if (key != null) {
-      this.properties.put(key, value);
-      this.notifyObservers();
+      this.properties().put(key, value);
+      this.notifyObservers(key);
     }
   }
 
@@ -180,8 +326,8 @@ public class AbstractEntity {
    * @param value The JsonNode representing the value.
    */
   public void addProperty(String key, JsonNode value) {
-    if (addProperty(this.properties, key, value)) {
-      notifyObservers();
+    if (addProperty(this.properties(), key, value)) {
+      notifyObservers(key);
     }
   }
 
@@ -204,11 +350,11 @@ public class AbstractEntity {
    * @param id   the "id" of the property.
    */
   public void addIdProperty(String name, String id) {
-    JsonNode jsonNode = addToIdProperty(name, id, this.properties.get(name));
+    JsonNode jsonNode = addToIdProperty(name, id, this.properties().get(name));
     if (jsonNode != null) {
       this.linkedTo.add(id);
-      this.properties.set(name, jsonNode);
-      this.notifyObservers();
+      this.properties().set(name, jsonNode);
+      this.notifyReferenceAdded(name, id);
     }
   }
 
@@ -242,11 +388,11 @@ public class AbstractEntity {
   public void addIdListProperties(String name, List<String> stringList) {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
     ArrayNode node = objectMapper.createArrayNode();
-    if (this.properties.get(name) == null) {
+    if (this.properties().get(name) == null) {
       node = objectMapper.createArrayNode();
     } else {
-      if (!this.properties.get(name).isArray()) {
-        node.add(this.properties.get(name));
+      if (!this.properties().get(name).isArray()) {
+        node.add(this.properties().get(name));
       }
     }
     for (String s : stringList) {
@@ -254,11 +400,11 @@ public class AbstractEntity {
       node.add(objectMapper.createObjectNode().put("@id", s));
     }
     if (node.size() == 1) {
-      this.properties.set(name, node.get(0));
+      this.properties().set(name, node.get(0));
     } else {
-      this.properties.set(name, node);
+      this.properties().set(name, node);
     }
-    notifyObservers();
+    notifyObservers(name);
   }
 
   /**
@@ -268,11 +414,48 @@ public class AbstractEntity {
    */
   public void addType(String type) {
     if (this.types == null) {
-      this.types = new HashSet<>();
+      this.types = new HashSet<>(this.getTypes());
+    }
+    if (this.types.add(type)) {
+      this.properties().set("@type", this.typesNode());
+      this.notifyObservers("@type");
+    }
+  }
+
+  /**
+   * Builds the "@type" node from the types, it is only called when they change.
+   */
+  private JsonNode typesNode() {
+    ArrayNode node = MyObjectMapper.getMapper().createArrayNode();
+    for (String type : this.types) {
+      node.add(type);
+    }
+    return node;
+  }
+
+  /**
+   * Returns the types of the entity.
+   * If the entity was created from json without setting types, they are read from "@type".
+   *
+   * @return unmodifiable set of the types.
+   */
+  @JsonIgnore
+  public Set<String> getTypes() {
+    if (this.types != null) {
+      return Collections.unmodifiableSet(this.types);
+    }
+    JsonNode type = this.readProperty("@type");
+    if (type == null) {
+      return Collections.emptySet();
+    }
+    if (type.isArray()) {
+      Set<String> result = new HashSet<>();
+      for (JsonNode element : type) {
+        result.add(element.asText());
+      }
+      return result;
     }
-    this.types.add(type);
-    JsonNode node = MyObjectMapper.getMapper().valueToTree(this.types);
-    this.properties.set("@type", node);
+    return Set.of(type.asText());
   }
 
   /**
@@ -286,6 +469,7 @@ public class AbstractEntity {
     protected Set<String> relatedItems;
     private ObjectNode properties;
     private String id;
+    private StringPool stringPool;
 
     public AbstractEntityBuilder() {
       this.properties = MyObjectMapper.getMapper().createObjectNode();
@@ -296,6 +480,24 @@ public class AbstractEntity {
       return this.id;
     }
 
+    /**
+     * Sets the string pool of the crate the entity is built for.
+     * The ids, types, keys and "@id" references given to the builder after this call
+     * are taken from the pool, so repeated values are stored once per crate.
+     * Other text values are not pooled.
+     *
+     * @param stringPool the string pool of the crate.
+     * @return the generic builder.
+     */
+    public T setStringPool(StringPool stringPool) {
+      this.stringPool = stringPool;
+      return self();
+    }
+
+    protected String intern(String value) {
+      return this.stringPool == null ? value : this.stringPool.intern(value);
+    }
+
     /**
      * Setting the id property of the entity.
      *
@@ -304,7 +506,7 @@ public class AbstractEntity {
      */
     public T setId(String id) {
       if (id != null) {
-        this.id = id;
+        this.id = this.intern(id);
       }
       //this.properties.put("@id", id);
       return self();
@@ -320,7 +522,7 @@ public class AbstractEntity {
       if (this.types == null) {
         this.types = new HashSet<>();
       }
-      this.types.add(type);
+      this.types.add(this.intern(type));
       return self();
     }
 
@@ -334,7 +536,9 @@ public class AbstractEntity {
       if (this.types == null) {
         this.types = new HashSet<>();
       }
-      this.types.addAll(types);
+      for (String type : types) {
+        this.types.add(this.intern(type));
+      }
       return self();
     }
 
@@ -346,29 +550,33 @@ public class AbstractEntity {
      * @return the generic builder.
      */
     public T addProperty(String key, JsonNode value) {
-      if (AbstractEntity.addProperty(this.properties, key, value)) {
-        this.relatedItems.addAll(JsonUtilFunctions.getIdPropertiesFromProperty(value));
+      if (this.stringPool != null) {
+        value = this.stringPool.internReferences(key, value);
+      }
+      if (AbstractEntity.addProperty(this.properties, this.intern(key), value)) {
+        this.relatedItems.addAll(
+            JsonUtilFunctions.getIdPropertiesFromProperty(value, this.stringPool));
       }
       return self();
     }
 
     public T addProperty(String key, String value) {
-      this.properties.put(key, value);
+      this.properties.put(this.intern(key), value);
       return self();
     }
 
     public T addProperty(String key, int value) {
-      this.properties.put(key, value);
+      this.properties.put(this.intern(key), value);
       return self();
     }
 
     public T addProperty(String key, double value) {
-      this.properties.put(key, value);
+      this.properties.put(this.intern(key), value);
       return self();
     }
 
     public T addProperty(String key, boolean value) {
-      this.properties.put(key, value);
+      this.properties.put(this.intern(key), value);
       return self();
     }
     /**
@@ -384,6 +592,8 @@ public class AbstractEntity {
      * @return the generic builder
      */
     public T addIdProperty(String name, String id) {
+      name = this.intern(name);
+      id = this.intern(id);
       JsonNode jsonNode = AbstractEntity.addToIdProperty(name, id, this.properties.get(name));
       if (jsonNode != null) {
         this.properties.set(name, jsonNode);
@@ -431,8 +641,12 @@ public class AbstractEntity {
      */
     public T setAll(ObjectNode properties) {
       if (AbstractEntity.entityValidation.entityValidation(properties)) {
+        if (this.stringPool != null) {
+          this.stringPool.internReferences(properties);
+        }
         this.properties = properties;
-        this.relatedItems.addAll(JsonUtilFunctions.getIdPropertiesFromJsonNode(properties));
+        this.relatedItems.addAll(
+            JsonUtilFunctions.getIdPropertiesFromJsonNode(properties, this.stringPool));
       }
       return self();
     }
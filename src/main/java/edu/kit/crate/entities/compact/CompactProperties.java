@@ -0,0 +1,51 @@
+package edu.kit.crate.entities.compact;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * The properties of an entity stored as a shared shape and a flat array of values.
+ * Text values are shared through the string pool of the ShapeTable.
+ * The nested objects and arrays are kept as they are,
+ * so references to them (ex. from the ReferenceIndex) stay valid.
+ */
+public final class CompactProperties {
+
+  private final PropertyShape shape;
+  private final JsonNode[] values;
+
+  CompactProperties(PropertyShape shape, JsonNode[] values) {
+    this.shape = shape;
+    this.values = values;
+  }
+
+  /**
+   * Returns the value of a property.
+   *
+   * @param key the key of the property.
+   * @return the value, or null if the property is not present.
+   */
+  public JsonNode get(String key) {
+    int index = this.shape.indexOf(key);
+    return index < 0 ? null : this.values[index];
+  }
+
+  public PropertyShape getShape() {
+    return this.shape;
+  }
+
+  /**
+   * Builds a Json object with all the properties.
+   * The values in it are the stored ones, the object itself is new.
+   *
+   * @return the ObjectNode containing the properties.
+   */
+  public ObjectNode toObjectNode() {
+    ObjectNode node = JsonNodeFactory.instance.objectNode();
+    for (int i = 0; i < this.values.length; i++) {
+      node.set(this.shape.getKey(i), this.values[i]);
+    }
+    return node;
+  }
+}
@@ -0,0 +1,60 @@
+package edu.kit.crate.entities.compact;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ordered list of property keys of an entity.
+ * Entities with the same keys share one shape, so the keys are stored once per crate
+ * and not once per entity.
+ */
+public final class PropertyShape {
+
+  /**
+   * Up to this many keys a linear search is faster than a hash lookup.
+   */
+  private static final int LINEAR_SEARCH_LIMIT = 8;
+
+  private final String[] keys;
+  private final Map<String, Integer> positions;
+
+  PropertyShape(List<String> keys) {
+    this.keys = keys.toArray(new String[0]);
+    if (this.keys.length > LINEAR_SEARCH_LIMIT) {
+      this.positions = new HashMap<>();
+      for (int i = 0; i < this.keys.length; i++) {
+        this.positions.put(this.keys[i], i);
+      }
+    } else {
+      this.positions = null;
+    }
+  }
+
+  /**
+   * Returns the position of a key in the shape.
+   *
+   * @param key the property key.
+   * @return the position of the value of the key, or -1 if the shape does not have it.
+   */
+  public int indexOf(String key) {
+    if (this.positions != null) {
+      Integer position = this.positions.get(key);
+      return position == null ? -1 : position;
+    }
+    for (int i = 0; i < this.keys.length; i++) {
+      if (this.keys[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public String getKey(int index) {
+    return this.keys[index];
+  }
+
+  public int size() {
+    return this.keys.length;
+  }
+}
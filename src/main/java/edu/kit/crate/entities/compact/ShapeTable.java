@@ -0,0 +1,66 @@
+package edu.kit.crate.entities.compact;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.special.StringPool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of the shapes and text values shared by the compacted entities of a crate.
+ * Entities with the same property keys get the same PropertyShape
+ * and equal text values get the same TextNode instance from the string pool.
+ */
+public class ShapeTable {
+
+  private final Map<List<String>, PropertyShape> shapes;
+  private final StringPool stringPool;
+
+  /**
+   * Constructs an empty table with its own string pool.
+   */
+  public ShapeTable() {
+    this(new StringPool());
+  }
+
+  /**
+   * Constructs an empty table that shares the text values through a string pool.
+   *
+   * @param stringPool the string pool of the crate.
+   */
+  public ShapeTable(StringPool stringPool) {
+    this.shapes = new HashMap<>();
+    this.stringPool = stringPool;
+  }
+
+  /**
+   * Stores the given properties in the compact form.
+   * Text nodes nested in arrays and objects are replaced by the shared ones in place.
+   *
+   * @param properties the properties of an entity.
+   * @return the compact properties.
+   */
+  public CompactProperties compact(ObjectNode properties) {
+    List<String> keys = new ArrayList<>(properties.size());
+    JsonNode[] values = new JsonNode[properties.size()];
+    int i = 0;
+    for (Iterator<Map.Entry<String, JsonNode>> it = properties.fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> field = it.next();
+      keys.add(field.getKey());
+      values[i++] = this.stringPool.internValues(field.getValue());
+    }
+    PropertyShape shape = this.shapes.get(keys);
+    if (shape == null) {
+      shape = new PropertyShape(keys);
+      this.shapes.put(keys, shape);
+    }
+    return new CompactProperties(shape, values);
+  }
+
+  public int getShapeCount() {
+    return this.shapes.size();
+  }
+}
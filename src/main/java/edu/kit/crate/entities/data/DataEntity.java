@@ -3,12 +3,14 @@ package edu.kit.crate.entities.data;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import edu.kit.crate.entities.AbstractEntity;
 import edu.kit.crate.entities.contextual.ContextualEntity;
+import edu.kit.crate.special.ZipStreamUtil;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 import net.lingala.zip4j.model.ZipParameters;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.validator.routines.UrlValidator;
@@ -24,6 +26,9 @@ public class DataEntity extends AbstractEntity {
   @JsonIgnore
   private File source;
 
+  @JsonIgnore
+  private ZipEntrySource entrySource;
+
   /**
    * The constructor that takes an DataEntity builder and instantiates the entity.
    *
@@ -35,7 +40,8 @@ public class DataEntity extends AbstractEntity {
       this.addIdListProperties("author", entityBuilder.authors);
     }
     this.source = entityBuilder.location;
-    if (this.getSource() == null) {
+    this.entrySource = entityBuilder.entrySource;
+    if (this.source == null && this.entrySource == null) {
       UrlValidator urlValidator = new UrlValidator();
       if (!urlValidator.isValid(this.getId())) {
         System.out.println("This Data Entity remote ID does not resolve to a valid URL.");
@@ -55,10 +61,26 @@ public class DataEntity extends AbstractEntity {
    * @throws ZipException when something goes wrong with the writing to the zip file.
    */
   public void saveToZip(ZipFile zipFile) throws ZipException {
-    if (this.source != null) {
+    if (this.getSource() != null) {
       ZipParameters zipParameters = new ZipParameters();
       zipParameters.setFileNameInZip(this.getId());
-      zipFile.addFile(this.source, zipParameters);
+      zipFile.addFile(this.getSource(), zipParameters);
+    }
+  }
+
+  /**
+   * If the data entity contains a physical file.
+   * This method will write it as a new entry to the zip stream,
+   * when the crate is being written in a single pass to a zip archive.
+   *
+   * @param zipStream the zip stream where the entity should be written.
+   * @throws IOException when something goes wrong with the writing to the stream.
+   */
+  public void saveToStream(ZipOutputStream zipStream) throws IOException {
+    if (this.entrySource != null) {
+      this.entrySource.saveToStream(this.getId(), zipStream);
+    } else if (this.source != null) {
+      ZipStreamUtil.addFileToZipStream(this.source, this.getId(), zipStream);
     }
   }
 
@@ -70,7 +92,10 @@ public class DataEntity extends AbstractEntity {
    * @throws IOException if something goes wrong with the writing.
    */
   public void savetoFile(File file) throws IOException {
-    if (this.getSource() != null) {
+    if (this.entrySource != null) {
+      // inflate the entry directly to the destination, no temporary copy is needed
+      this.entrySource.extractTo(file.toPath().resolve(this.getId()).toFile());
+    } else if (this.getSource() != null) {
       if (this.getSource().isDirectory()) {
         FileUtils.copyDirectory(this.getSource(), file.toPath().resolve(this.getId()).toFile());
       } else {
@@ -79,18 +104,39 @@ public class DataEntity extends AbstractEntity {
     }
   }
 
+  /**
+   * Returns the file of the data entity.
+   * If the entity was read from a zip archive without extracting it,
+   * the content is inflated to a temporary location on the first call.
+   *
+   * @return the file or null if the entity has no local content.
+   */
   public File getSource() {
+    if (this.source == null && this.entrySource != null) {
+      try {
+        this.source = this.entrySource.getFile();
+      } catch (IOException e) {
+        System.err.println("Cannot extract " + this.getId() + " from the zip archive.");
+        e.printStackTrace();
+      }
+    }
     return source;
   }
 
+  public ZipEntrySource getEntrySource() {
+    return entrySource;
+  }
+
   public void setSource(File source) {
     this.source = source;
+    this.entrySource = null;
   }
 
   abstract static class AbstractDataEntityBuilder<T extends AbstractDataEntityBuilder<T>> extends
       AbstractEntityBuilder<T> {
 
     File location;
+    ZipEntrySource entrySource;
     List<String> authors = new ArrayList<>();
 
     public T setSource(File file) {
@@ -103,6 +149,19 @@ public class DataEntity extends AbstractEntity {
       return self();
     }
 
+    /**
+     * Setting a source that is still inside of a zip archive.
+     *
+     * @param entrySource the entry in the archive.
+     * @return the generic builder.
+     */
+    public T setEntrySource(ZipEntrySource entrySource) {
+      if (entrySource != null) {
+        this.entrySource = entrySource;
+      }
+      return self();
+    }
+
     public T setLicense(String id) {
       this.addIdProperty("license", id);
       return self();
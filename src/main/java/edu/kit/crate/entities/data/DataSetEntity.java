@@ -3,10 +3,14 @@ package edu.kit.crate.entities.data;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import edu.kit.crate.entities.serializers.HasPartSerializer;
+import edu.kit.crate.special.ZipStreamUtil;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 
 /**
  * A helping class for the creating of Data entities of type Dataset.
@@ -34,7 +38,20 @@ public class DataSetEntity extends DataEntity {
   }
 
   public void removeFromHasPart(String str) {
-    this.hasPart.remove(str);
+    if (this.hasPart.remove(str)) {
+      this.notifyReferenceRemoved("hasPart", str);
+    }
+  }
+
+  /**
+   * Removes multiple ids from the parts of the data set.
+   *
+   * @param ids the ids to remove.
+   */
+  public void removeFromHasPart(Collection<String> ids) {
+    for (String id : ids) {
+      this.removeFromHasPart(id);
+    }
   }
 
   @Override
@@ -44,8 +61,19 @@ public class DataSetEntity extends DataEntity {
     }
   }
 
+  @Override
+  public void saveToStream(ZipOutputStream zipStream) throws IOException {
+    if (this.getEntrySource() != null) {
+      this.getEntrySource().saveToStream(this.getId(), zipStream);
+    } else if (this.getSource() != null) {
+      ZipStreamUtil.addFolderToZipStream(this.getSource(), this.getId(), zipStream);
+    }
+  }
+
   public void addToHasPart(String id) {
-    this.hasPart.add(id);
+    if (this.hasPart.add(id)) {
+      this.notifyReferenceAdded("hasPart", id);
+    }
   }
 
   public boolean hasInHasPart(String id) {
@@ -77,6 +105,7 @@ public class DataSetEntity extends DataEntity {
 
     public T addToHasPart(String dataEntity) {
       if (dataEntity != null) {
+        dataEntity = this.intern(dataEntity);
         this.hasPart.add(dataEntity);
         this.relatedItems.add(dataEntity);
       }
@@ -0,0 +1,162 @@
+package edu.kit.crate.entities.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.FileHeader;
+import net.lingala.zip4j.model.ZipParameters;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * The source of a data entity that stays inside the zip archive it was read from.
+ * The entry (or all the entries of a folder) are only inflated
+ * when someone actually reads the content.
+ */
+public class ZipEntrySource {
+
+  private final ZipFile zipFile;
+  private final String entryName;
+  private final List<FileHeader> headers;
+  private File extracted;
+
+  /**
+   * Constructor for a source backed by one or more entries of a zip archive.
+   *
+   * @param zipFile the archive containing the entries.
+   * @param entryName the name of the file entry, or the folder prefix ending with "/".
+   * @param headers the headers of the file, or of everything inside the folder.
+   */
+  public ZipEntrySource(ZipFile zipFile, String entryName, List<FileHeader> headers) {
+    this.zipFile = zipFile;
+    this.entryName = entryName;
+    this.headers = headers;
+  }
+
+  public String getEntryName() {
+    return this.entryName;
+  }
+
+  public boolean isDirectory() {
+    return this.entryName.endsWith("/");
+  }
+
+  /**
+   * Opens the compressed stream of a file entry, the content is inflated while reading.
+   *
+   * @return the stream with the content of the entry.
+   * @throws IOException if the source is a folder or the archive cannot be read.
+   */
+  public InputStream getInputStream() throws IOException {
+    if (this.isDirectory()) {
+      throw new IOException(this.entryName + " is a folder and has no content stream");
+    }
+    return this.zipFile.getInputStream(this.headers.get(0));
+  }
+
+  /**
+   * Inflates the entry (or the whole folder) to the destination.
+   *
+   * @param destination the file or folder that should be created.
+   * @throws IOException if the reading of the archive or the writing fails.
+   */
+  public void extractTo(File destination) throws IOException {
+    if (!this.isDirectory()) {
+      try (InputStream inputStream = this.getInputStream()) {
+        FileUtils.copyInputStreamToFile(inputStream, destination);
+      }
+      return;
+    }
+    FileUtils.forceMkdir(destination);
+    for (FileHeader header : this.headers) {
+      File file = resolveInside(destination,
+          header.getFileName().substring(this.entryName.length()));
+      if (header.isDirectory()) {
+        FileUtils.forceMkdir(file);
+      } else {
+        try (InputStream inputStream = this.zipFile.getInputStream(header)) {
+          FileUtils.copyInputStreamToFile(inputStream, file);
+        }
+      }
+    }
+  }
+
+  /**
+   * Resolves the name of an entry against a folder.
+   * Names like "../x" would be written outside the folder, so they are rejected.
+   *
+   * @param folder the folder the entry is extracted to.
+   * @param name the name of the entry relative to the folder.
+   * @return the file of the entry inside the folder.
+   * @throws IOException if the entry would be written outside the folder.
+   */
+  private static File resolveInside(File folder, String name) throws IOException {
+    Path root = folder.toPath().toAbsolutePath().normalize();
+    Path file = root.resolve(name).normalize();
+    if (!file.startsWith(root)) {
+      throw new IOException("The zip entry " + name + " is outside of the target folder.");
+    }
+    return file.toFile();
+  }
+
+  /**
+   * Copies the entry (or the whole folder) to another zip stream,
+   * without extracting it to the filesystem.
+   *
+   * @param nameInZip the name the entry should have in the new archive.
+   * @param zipStream the stream where the entries are written.
+   * @throws IOException if the reading of the archive or the writing fails.
+   */
+  public void saveToStream(String nameInZip, ZipOutputStream zipStream) throws IOException {
+    if (!this.isDirectory()) {
+      copyEntry(this.headers.get(0), nameInZip, zipStream);
+      return;
+    }
+    String prefix = nameInZip.endsWith("/") ? nameInZip : nameInZip + "/";
+    for (FileHeader header : this.headers) {
+      copyEntry(header, prefix + header.getFileName().substring(this.entryName.length()),
+          zipStream);
+    }
+  }
+
+  private void copyEntry(FileHeader header, String nameInZip, ZipOutputStream zipStream)
+      throws IOException {
+    ZipParameters zipParameters = new ZipParameters();
+    zipParameters.setFileNameInZip(nameInZip);
+    if (header.isDirectory()) {
+      zipStream.putNextEntry(zipParameters);
+      zipStream.closeEntry();
+      return;
+    }
+    try (InputStream inputStream = this.zipFile.getInputStream(header)) {
+      zipStream.putNextEntry(zipParameters);
+      IOUtils.copy(inputStream, zipStream);
+      zipStream.closeEntry();
+    }
+  }
+
+  /**
+   * Returns the content as a file in the filesystem.
+   * The first call extracts the entry to a temporary folder, the next calls reuse it.
+   *
+   * @return the extracted file or folder.
+   * @throws IOException if the extraction fails.
+   */
+  public File getFile() throws IOException {
+    if (this.extracted == null) {
+      File folder = Files.createTempDirectory("ro-crate-entry").toFile();
+      FileUtils.forceDeleteOnExit(folder);
+      String name = this.isDirectory()
+          ? this.entryName.substring(0, this.entryName.length() - 1) : this.entryName;
+      File file = resolveInside(folder, name.substring(name.lastIndexOf('/') + 1));
+      this.extractTo(file);
+      this.extracted = file;
+    }
+    return this.extracted;
+  }
+}
@@ -0,0 +1,95 @@
+package edu.kit.crate.entities.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.util.Iterator;
+
+/**
+ * Implementation of the entity validation strategy that checks the flattened
+ * RO-Crate structure directly on the json tree.
+ * It accepts and rejects exactly what the default schemas (entity_schema.json and
+ * entity_field_structure_schema.json) do, without running a json schema validator.
+ * For custom schemas use {@link JsonSchemaValidation}.
+ */
+public class FlattenedStructureValidation implements EntityValidationStrategy {
+
+  private static final String ID = "@id";
+
+  @Override
+  public boolean validateEntity(JsonNode entity) {
+    if (!isValidEntity(entity)) {
+      System.err.println("This entity does not comply to the basic RO-Crate entity structure.");
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean validateFieldOfEntity(JsonNode field) {
+    if (!isValidField(field)) {
+      ObjectMapper objectMapper = MyObjectMapper.getMapper();
+      System.err.println("The property: ");
+      try {
+        System.err.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(field));
+      } catch (JsonProcessingException e) {
+        e.printStackTrace();
+      }
+      System.err.println("does not comply with the flattened structure"
+          + " of the RO-Crate json document.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * An entity is an object where every property is a valid field.
+   */
+  private static boolean isValidEntity(JsonNode entity) {
+    if (entity == null || !entity.isObject()) {
+      return false;
+    }
+    for (Iterator<JsonNode> it = entity.elements(); it.hasNext(); ) {
+      if (!isValidField(it.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * A field is an array of strings and id objects, a single id object,
+   * a string, a number, a boolean or null.
+   */
+  private static boolean isValidField(JsonNode field) {
+    if (field == null) {
+      return false;
+    }
+    if (field.isArray()) {
+      for (int i = 0; i < field.size(); i++) {
+        JsonNode element = field.get(i);
+        if (!element.isTextual() && !isIdProperty(element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return isIdProperty(field) || field.isTextual() || field.isNumber()
+        || field.isBoolean() || field.isNull();
+  }
+
+  /**
+   * An id property is an object that has no other property than a textual "@id".
+   */
+  private static boolean isIdProperty(JsonNode node) {
+    if (!node.isObject()) {
+      return false;
+    }
+    if (node.size() == 0) {
+      return true;
+    }
+    JsonNode id = node.get(ID);
+    return node.size() == 1 && id != null && id.isTextual();
+  }
+}
@@ -4,10 +4,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.validation.JsonSchemaRegistry;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Objects;
@@ -32,10 +31,9 @@ public class JsonSchemaValidation implements EntityValidationStrategy {
    *  Default constructor that uses the default schemas.
    */
   public JsonSchemaValidation() {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
     try {
-      this.entitySchema = factory.getSchema(entitySchemaDefault.toURI());
-      this.entityFieldSchema = factory.getSchema(fieldSchemaDefault.toURI());
+      this.entitySchema = JsonSchemaRegistry.getSchema(entitySchemaDefault.toURI());
+      this.entityFieldSchema = JsonSchemaRegistry.getSchema(fieldSchemaDefault.toURI());
     } catch (URISyntaxException e) {
       e.printStackTrace();
     }
@@ -48,9 +46,8 @@ public class JsonSchemaValidation implements EntityValidationStrategy {
    * @param fieldSchema schema for the field validation.
    */
   public JsonSchemaValidation(JsonNode entitySchema, JsonNode fieldSchema) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.entitySchema = factory.getSchema(entitySchema);
-    this.entityFieldSchema = factory.getSchema(fieldSchema);
+    this.entitySchema = JsonSchemaRegistry.compile(entitySchema);
+    this.entityFieldSchema = JsonSchemaRegistry.compile(fieldSchema);
   }
 
   @Override
@@ -4,8 +4,16 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import edu.kit.crate.entities.AbstractEntity;
 import edu.kit.crate.entities.contextual.ContextualEntity;
 import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.entities.data.DataSetEntity;
+import edu.kit.crate.special.JsonUtilFunctions;
+import edu.kit.crate.special.StringPool;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interface for the ROCrate payload.
@@ -36,7 +44,158 @@ public interface CratePayload {
 
   List<ContextualEntity> getAllContextualEntities();
 
+  /**
+   * Returns the data entities without copying them, if the payload supports it.
+   * By default the list of all data entities is returned as read only.
+   *
+   * @return read only collection of the data entities.
+   */
+  default Collection<DataEntity> getDataEntitiesView() {
+    return Collections.unmodifiableList(this.getAllDataEntities());
+  }
+
+  /**
+   * Returns the contextual entities without copying them, if the payload supports it.
+   * By default the list of all contextual entities is returned as read only.
+   *
+   * @return read only collection of the contextual entities.
+   */
+  default Collection<ContextualEntity> getContextualEntitiesView() {
+    return Collections.unmodifiableList(this.getAllContextualEntities());
+  }
+
+  /**
+   * Returns all the entities without copying them, if the payload supports it.
+   * By default the list of all entities is returned as read only.
+   *
+   * @return read only iterable over the entities.
+   */
+  default Iterable<AbstractEntity> getAllEntitiesView() {
+    return Collections.unmodifiableList(this.getAllEntities());
+  }
+
+  default Stream<AbstractEntity> streamAllEntities() {
+    return this.getAllEntities().stream();
+  }
+
+  default void forEachEntity(Consumer<? super AbstractEntity> action) {
+    this.getAllEntities().forEach(action);
+  }
+
+  /**
+   * Returns the entities with the given type.
+   * By default all the entities are scanned.
+   *
+   * @param type the type, as written in "@type".
+   * @return the entities with that type.
+   */
+  default Collection<AbstractEntity> getEntitiesByType(String type) {
+    List<AbstractEntity> entities = new ArrayList<>();
+    this.forEachEntity(entity -> {
+      if (entity.getTypes().contains(type)) {
+        entities.add(entity);
+      }
+    });
+    return entities;
+  }
+
+  /**
+   * Declares a hash index on a property, used by {@link #query()}.
+   * Indexes only speed up queries, so by default nothing is done.
+   *
+   * @param propertyKey the key of the property.
+   */
+  default void addHashIndex(String propertyKey) {
+  }
+
+  /**
+   * Declares a sorted index on a property, used by {@link #query()}.
+   * Indexes only speed up queries, so by default nothing is done.
+   *
+   * @param propertyKey the key of the property.
+   */
+  default void addSortedIndex(String propertyKey) {
+  }
+
+  default EntityQuery query() {
+    throw new UnsupportedOperationException("query");
+  }
+
+  /**
+   * Returns the ids referenced by the entity with the given id.
+   * By default the properties of the entity are scanned.
+   *
+   * @param id the id of the entity.
+   * @return set of the referenced ids.
+   */
+  default Set<String> getReferencedIds(String id) {
+    AbstractEntity entity = this.getEntityById(id);
+    if (entity == null) {
+      return Collections.emptySet();
+    }
+    Set<String> ids = JsonUtilFunctions.getIdPropertiesFromJsonNode(entity.readProperties());
+    if (entity instanceof DataSetEntity) {
+      ids.addAll(((DataSetEntity) entity).hasPart);
+    }
+    return ids;
+  }
+
+  default EntityGraph getGraph() {
+    return new EntityGraph(this::getEntityById, this::getReferencedIds);
+  }
+
+  /**
+   * Stores the entities of the payload in a more compact form, if the payload supports it.
+   * By default nothing is done.
+   */
+  default void compactEntities() {
+  }
+
+  /**
+   * Returns the pool used for the strings of the entities of the payload.
+   *
+   * @return the pool, or null if the payload does not have one.
+   */
+  default StringPool getStringPool() {
+    return null;
+  }
+
   ArrayNode getEntitiesMetadata();
 
   void removeEntityById(String id);
+
+  /**
+   * Removes all the entities with these ids, by default one after the other.
+   *
+   * @param ids the ids of the entities to remove.
+   */
+  default void removeEntitiesByIds(Set<String> ids) {
+    for (String id : ids) {
+      this.removeEntityById(id);
+    }
+  }
+
+  /**
+   * Adds an observer that is notified whenever an entity of the payload
+   * is added, changed or removed.
+   *
+   * @param observer the observer that should be notified.
+   * @throws UnsupportedOperationException if the payload does not notify about changes.
+   */
+  default void addObserver(Observer observer) {
+    throw new UnsupportedOperationException("addObserver");
+  }
+
+  /**
+   * Starts a batch of changes. Batches can be nested, only the outermost one ends.
+   * By default there is nothing to defer, so nothing is done.
+   */
+  default void startBatch() {
+  }
+
+  /**
+   * Ends a batch of changes started with {@link #startBatch()}.
+   */
+  default void endBatch() {
+  }
 }
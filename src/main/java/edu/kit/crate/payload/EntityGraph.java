@@ -0,0 +1,166 @@
+package edu.kit.crate.payload;
+
+import edu.kit.crate.entities.AbstractEntity;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The graph formed by the entities of a crate and the "@id" links between them.
+ * The links are read from the reference indexes that are kept up to date with every change,
+ * so a traversal only costs as much as the part of the graph it visits.
+ * Ids that do not belong to an entity of the crate (ex. external urls) are not visited.
+ */
+public class EntityGraph {
+
+  /**
+   * Depth to use for traversals without a limit.
+   */
+  public static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private final Function<String, AbstractEntity> entities;
+  private final Function<String, ? extends Collection<String>> links;
+
+  /**
+   * Constructs a graph.
+   *
+   * @param entities returns the entity with an id, or null.
+   * @param links returns the ids referenced by the entity with an id.
+   */
+  public EntityGraph(Function<String, AbstractEntity> entities,
+      Function<String, ? extends Collection<String>> links) {
+    this.entities = entities;
+    this.links = links;
+  }
+
+  /**
+   * Visits the entities reachable from an entity in breadth first order.
+   *
+   * @param startId the id of the entity to start from.
+   * @param maxDepth the maximal number of links to follow.
+   * @return the visited entities in the order of visiting, starting with the start entity.
+   */
+  public List<AbstractEntity> breadthFirst(String startId, int maxDepth) {
+    return new ArrayList<>(this.breadthFirstWithDepth(startId, maxDepth).keySet());
+  }
+
+  /**
+   * Visits the entities reachable from an entity in depth first order.
+   *
+   * @param startId the id of the entity to start from.
+   * @param maxDepth the maximal number of links to follow.
+   * @return the visited entities in the order of visiting, starting with the start entity.
+   */
+  public List<AbstractEntity> depthFirst(String startId, int maxDepth) {
+    List<AbstractEntity> result = new ArrayList<>();
+    AbstractEntity start = this.entities.apply(startId);
+    if (start == null) {
+      return result;
+    }
+    // the lowest depth an entity was reached with, it is expanded again if reached higher up
+    Map<String, Integer> depths = new HashMap<>();
+    Deque<AbstractEntity> stack = new ArrayDeque<>();
+    Deque<Integer> stackDepths = new ArrayDeque<>();
+    stack.push(start);
+    stackDepths.push(0);
+    while (!stack.isEmpty()) {
+      AbstractEntity entity = stack.pop();
+      int depth = stackDepths.pop();
+      Integer seen = depths.get(entity.getId());
+      if (seen != null && seen <= depth) {
+        continue;
+      }
+      if (seen == null) {
+        result.add(entity);
+      }
+      depths.put(entity.getId(), depth);
+      if (depth < maxDepth) {
+        for (String id : this.links.apply(entity.getId())) {
+          AbstractEntity next = this.entities.apply(id);
+          Integer nextSeen = depths.get(id);
+          if (next != null && (nextSeen == null || nextSeen > depth + 1)) {
+            stack.push(next);
+            stackDepths.push(depth + 1);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the ids of all the entities reachable from an entity, including it.
+   *
+   * @param startId the id of the entity to start from.
+   * @param maxDepth the maximal number of links to follow.
+   * @return the set of the reachable ids.
+   */
+  public Set<String> getReachableIds(String startId, int maxDepth) {
+    Set<String> ids = new HashSet<>();
+    for (AbstractEntity entity : this.breadthFirstWithDepth(startId, maxDepth).keySet()) {
+      ids.add(entity.getId());
+    }
+    return ids;
+  }
+
+  /**
+   * Extracts the subgraph reachable from an entity: every reachable entity
+   * with its links to other entities of the subgraph.
+   *
+   * @param startId the id of the entity to start from.
+   * @param maxDepth the maximal number of links to follow.
+   * @return map from every reachable id to the reachable ids it links to.
+   */
+  public Map<String, Set<String>> getReachableSubgraph(String startId, int maxDepth) {
+    Set<String> ids = this.getReachableIds(startId, maxDepth);
+    Map<String, Set<String>> subgraph = new LinkedHashMap<>();
+    for (String id : ids) {
+      Set<String> targets = new HashSet<>();
+      for (String target : this.links.apply(id)) {
+        if (ids.contains(target)) {
+          targets.add(target);
+        }
+      }
+      subgraph.put(id, targets);
+    }
+    return subgraph;
+  }
+
+  private Map<AbstractEntity, Integer> breadthFirstWithDepth(String startId, int maxDepth) {
+    Map<AbstractEntity, Integer> visited = new LinkedHashMap<>();
+    Set<String> seen = new HashSet<>();
+    AbstractEntity start = this.entities.apply(startId);
+    if (start == null) {
+      return visited;
+    }
+    Deque<AbstractEntity> queue = new ArrayDeque<>();
+    queue.add(start);
+    seen.add(startId);
+    visited.put(start, 0);
+    while (!queue.isEmpty()) {
+      AbstractEntity entity = queue.poll();
+      int depth = visited.get(entity);
+      if (depth >= maxDepth) {
+        continue;
+      }
+      for (String id : this.links.apply(entity.getId())) {
+        if (seen.add(id)) {
+          AbstractEntity next = this.entities.apply(id);
+          if (next != null) {
+            visited.put(next, depth + 1);
+            queue.add(next);
+          }
+        }
+      }
+    }
+    return visited;
+  }
+}
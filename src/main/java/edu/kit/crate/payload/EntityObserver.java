@@ -13,6 +13,26 @@ public class EntityObserver implements Observer {
 
   @Override
   public void update(String entityId) {
-    this.payload.addToAssociatedItems(this.payload.getEntityById(entityId));
+    this.payload.entityChanged(entityId, null);
+  }
+
+  @Override
+  public void update(String entityId, String propertyKey) {
+    this.payload.entityChanged(entityId, propertyKey);
+  }
+
+  @Override
+  public void referenceAdded(String entityId, String propertyKey, String referencedId) {
+    this.payload.referenceChanged(entityId, propertyKey, referencedId, true);
+  }
+
+  @Override
+  public void referenceRemoved(String entityId, String propertyKey, String referencedId) {
+    this.payload.referenceChanged(entityId, propertyKey, referencedId, false);
+  }
+
+  @Override
+  public void propertiesExposed(String entityId) {
+    this.payload.entityExposed(entityId);
   }
 }
@@ -0,0 +1,145 @@
+package edu.kit.crate.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.crate.entities.AbstractEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A query over the entities of a payload by the values of their properties.
+ * All the conditions have to match. If some of the properties are indexed
+ * (see {@link CratePayload#addHashIndex(String)} and {@link CratePayload#addSortedIndex(String)})
+ * the smallest matching set from an index is used instead of going over the whole payload.
+ */
+public class EntityQuery {
+
+  private final RoCratePayload payload;
+  private final List<Condition> conditions;
+
+  EntityQuery(RoCratePayload payload) {
+    this.payload = payload;
+    this.conditions = new ArrayList<>();
+  }
+
+  /**
+   * Matches entities where the property has the value, or one of its values if it is an array.
+   * Id objects are compared by their "@id", so this also matches references to an entity.
+   *
+   * @param key the key of the property.
+   * @param value the value as text.
+   * @return this query.
+   */
+  public EntityQuery whereEquals(String key, String value) {
+    this.conditions.add(new Condition(key, value, value, false, null));
+    return this;
+  }
+
+  /**
+   * Matches entities where one of the values of the property is between the two values,
+   * inclusive. The values are compared as text.
+   *
+   * @param key the key of the property.
+   * @param from the lowest value.
+   * @param to the highest value.
+   * @return this query.
+   */
+  public EntityQuery whereBetween(String key, String from, String to) {
+    this.conditions.add(new Condition(key, from, to, true, null));
+    return this;
+  }
+
+  /**
+   * Matches entities where the value of the property fulfills a predicate.
+   * The predicate gets null if the entity does not have the property.
+   * These conditions cannot use an index.
+   *
+   * @param key the key of the property.
+   * @param predicate the predicate on the value.
+   * @return this query.
+   */
+  public EntityQuery where(String key, Predicate<JsonNode> predicate) {
+    this.conditions.add(new Condition(key, null, null, false, predicate));
+    return this;
+  }
+
+  /**
+   * Runs the query on the payload.
+   *
+   * @return the entities matching all the conditions.
+   */
+  public List<AbstractEntity> execute() {
+    Set<String> candidates = null;
+    for (Condition condition : this.conditions) {
+      Set<String> ids = condition.getCandidates(this.payload.getPropertyIndex(condition.key));
+      if (ids != null && (candidates == null || ids.size() < candidates.size())) {
+        candidates = ids;
+      }
+    }
+    List<AbstractEntity> result = new ArrayList<>();
+    if (candidates == null) {
+      this.payload.forEachEntity(entity -> {
+        if (this.matches(entity)) {
+          result.add(entity);
+        }
+      });
+    } else {
+      for (String id : candidates) {
+        AbstractEntity entity = this.payload.getEntityById(id);
+        if (entity != null && this.matches(entity)) {
+          result.add(entity);
+        }
+      }
+    }
+    return result;
+  }
+
+  private boolean matches(AbstractEntity entity) {
+    for (Condition condition : this.conditions) {
+      if (!condition.matches(entity)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static class Condition {
+
+    private final String key;
+    private final String from;
+    private final String to;
+    private final boolean range;
+    private final Predicate<JsonNode> predicate;
+
+    Condition(String key, String from, String to, boolean range, Predicate<JsonNode> predicate) {
+      this.key = key;
+      this.from = from;
+      this.to = to;
+      this.range = range;
+      this.predicate = predicate;
+    }
+
+    Set<String> getCandidates(PropertyIndex index) {
+      if (index == null || this.predicate != null) {
+        return null;
+      }
+      return this.range ? index.getBetween(this.from, this.to) : index.getEqual(this.from);
+    }
+
+    boolean matches(AbstractEntity entity) {
+      JsonNode value = entity.readProperty(this.key);
+      if (this.predicate != null) {
+        return this.predicate.test(value);
+      }
+      for (String text : PropertyIndex.getKeys(value)) {
+        if (this.range
+            ? text.compareTo(this.from) >= 0 && text.compareTo(this.to) <= 0
+            : text.equals(this.from)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
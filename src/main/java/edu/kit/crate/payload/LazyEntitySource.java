@@ -0,0 +1,38 @@
+package edu.kit.crate.payload;
+
+import edu.kit.crate.entities.AbstractEntity;
+import java.util.Collection;
+
+/**
+ * Source of entities that are known to a crate, but not built yet.
+ * The crate builds an entity from the source the first time it is needed
+ * and after that keeps it in its payload like every other entity.
+ */
+public interface LazyEntitySource {
+
+  boolean contains(String id);
+
+  /**
+   * Builds an entity and removes it from the source.
+   * An entity that can not be built stays in the source.
+   *
+   * @param id the id of the entity.
+   * @return the built entity, or null if it can not be built.
+   */
+  AbstractEntity materialize(String id);
+
+  /**
+   * Returns the ids of the entities that are not built yet, in the order of the source.
+   *
+   * @return the ids of the entities.
+   */
+  Collection<String> getIds();
+
+  /**
+   * Returns the ids of the entities that are not built yet and have a type.
+   *
+   * @param type the type of the entities.
+   * @return the ids of the entities.
+   */
+  Collection<String> getIdsByType(String type);
+}
@@ -5,4 +5,45 @@ package edu.kit.crate.payload;
  */
 public interface Observer {
   void update(String entityId);
+
+  /**
+   * Called when a single property of the entity changed.
+   *
+   * @param entityId the id of the changed entity.
+   * @param propertyKey the key of the changed property.
+   */
+  default void update(String entityId, String propertyKey) {
+    this.update(entityId);
+  }
+
+  /**
+   * Called when a reference to another entity was added to a property of the entity.
+   *
+   * @param entityId the id of the changed entity.
+   * @param propertyKey the key of the changed property.
+   * @param referencedId the id that is now referenced.
+   */
+  default void referenceAdded(String entityId, String propertyKey, String referencedId) {
+    this.update(entityId, propertyKey);
+  }
+
+  /**
+   * Called when a reference to another entity was removed from a property of the entity.
+   *
+   * @param entityId the id of the changed entity.
+   * @param propertyKey the key of the changed property.
+   * @param referencedId the id that is no longer referenced.
+   */
+  default void referenceRemoved(String entityId, String propertyKey, String referencedId) {
+    this.update(entityId, propertyKey);
+  }
+
+  /**
+   * Called when the live properties of the entity were handed out.
+   * From then on they can be changed without any notification.
+   *
+   * @param entityId the id of the entity.
+   */
+  default void propertiesExposed(String entityId) {
+  }
 }
@@ -0,0 +1,168 @@
+package edu.kit.crate.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the values of a single property over the entities of a payload.
+ * The values are indexed as text: strings, numbers and booleans by their text,
+ * and id objects by their "@id". Arrays are indexed by every one of their elements.
+ */
+abstract class PropertyIndex {
+
+  private final Map<String, List<String>> keysOfEntity;
+
+  PropertyIndex() {
+    this.keysOfEntity = new HashMap<>();
+  }
+
+  /**
+   * Indexes the value of the property of an entity, replacing the previous one.
+   *
+   * @param entityId the id of the entity.
+   * @param value the value of the property, null if the entity does not have it.
+   */
+  void update(String entityId, JsonNode value) {
+    this.remove(entityId);
+    List<String> keys = getKeys(value);
+    if (!keys.isEmpty()) {
+      for (String key : keys) {
+        this.getIds(key, true).add(entityId);
+      }
+      this.keysOfEntity.put(entityId, keys);
+    }
+  }
+
+  /**
+   * Removes an entity from the index.
+   *
+   * @param entityId the id of the entity.
+   */
+  void remove(String entityId) {
+    List<String> keys = this.keysOfEntity.remove(entityId);
+    if (keys != null) {
+      for (String key : keys) {
+        Set<String> ids = this.getIds(key, false);
+        if (ids != null) {
+          ids.remove(entityId);
+          if (ids.isEmpty()) {
+            this.removeKey(key);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the ids of the entities that have this value in the property.
+   *
+   * @param value the value as text.
+   * @return unmodifiable set of the ids.
+   */
+  Set<String> getEqual(String value) {
+    Set<String> ids = this.getIds(value, false);
+    return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+  }
+
+  /**
+   * Returns the ids of the entities with a value in the range, or null if
+   * the index cannot answer range queries.
+   *
+   * @param from the lowest value, inclusive.
+   * @param to the highest value, inclusive.
+   * @return the set of the ids, or null.
+   */
+  Set<String> getBetween(String from, String to) {
+    return null;
+  }
+
+  abstract Set<String> getIds(String key, boolean create);
+
+  abstract void removeKey(String key);
+
+  /**
+   * Returns the values of a property as text, the same way they are indexed.
+   *
+   * @param value the value of the property.
+   * @return the list of the values.
+   */
+  static List<String> getKeys(JsonNode value) {
+    List<String> keys = new ArrayList<>();
+    if (value != null) {
+      if (value.isArray()) {
+        for (JsonNode element : value) {
+          addKey(keys, element);
+        }
+      } else {
+        addKey(keys, value);
+      }
+    }
+    return keys;
+  }
+
+  private static void addKey(List<String> keys, JsonNode value) {
+    if (value.isObject()) {
+      JsonNode id = value.get("@id");
+      if (id != null) {
+        keys.add(id.asText());
+      }
+    } else if (value.isValueNode() && !value.isNull()) {
+      keys.add(value.asText());
+    }
+  }
+
+  /**
+   * Property index that answers equality queries.
+   */
+  static class HashPropertyIndex extends PropertyIndex {
+
+    private final Map<String, Set<String>> index = new HashMap<>();
+
+    @Override
+    Set<String> getIds(String key, boolean create) {
+      return create ? this.index.computeIfAbsent(key, k -> new HashSet<>()) : this.index.get(key);
+    }
+
+    @Override
+    void removeKey(String key) {
+      this.index.remove(key);
+    }
+  }
+
+  /**
+   * Property index that keeps the values sorted as text, so it answers
+   * range queries as well. Dates in ISO 8601 format are sorted correctly this way.
+   */
+  static class SortedPropertyIndex extends PropertyIndex {
+
+    private final TreeMap<String, Set<String>> index = new TreeMap<>();
+
+    @Override
+    Set<String> getIds(String key, boolean create) {
+      return create ? this.index.computeIfAbsent(key, k -> new HashSet<>()) : this.index.get(key);
+    }
+
+    @Override
+    void removeKey(String key) {
+      this.index.remove(key);
+    }
+
+    @Override
+    Set<String> getBetween(String from, String to) {
+      Set<String> result = new HashSet<>();
+      if (from.compareTo(to) <= 0) {
+        for (Set<String> ids : this.index.subMap(from, true, to, true).values()) {
+          result.addAll(ids);
+        }
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,426 @@
+package edu.kit.crate.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.data.DataSetEntity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bidirectional index of the references between entities.
+ * For every entity and property it keeps the referenced ids together with the
+ * {"@id": ...} nodes where they are written, and for every id the entities that reference it.
+ * This way removing all the references to an id touches only the nodes that hold it.
+ * Removed references leave an empty object in place (as the serializer skips them),
+ * so the recorded nodes of the other references stay valid.
+ */
+public class ReferenceIndex {
+
+  private static final String ID = "@id";
+  private static final String HAS_PART = "hasPart";
+
+  private final Map<String, Map<String, Map<String, List<ObjectNode>>>> outgoing;
+  private final Map<String, Set<String>> referrers;
+  private final Map<String, AbstractEntity> tracked;
+  private final Map<String, AbstractEntity> pending;
+  private boolean deferred;
+
+  /**
+   * Constructs an empty index.
+   */
+  public ReferenceIndex() {
+    this.outgoing = new HashMap<>();
+    this.referrers = new HashMap<>();
+    this.tracked = new HashMap<>();
+    this.pending = new HashMap<>();
+    this.deferred = false;
+  }
+
+  /**
+   * Turns the deferred mode on or off.
+   * While deferred, changed entities are only remembered and each of them is indexed
+   * once, when the mode is turned off or when the index is queried.
+   *
+   * @param deferred if the indexing should be deferred.
+   */
+  public void setDeferred(boolean deferred) {
+    this.deferred = deferred;
+    if (!deferred) {
+      this.indexPending();
+    }
+  }
+
+  private boolean defer(AbstractEntity entity) {
+    if (this.deferred) {
+      this.pending.put(entity.getId(), entity);
+    }
+    return this.deferred;
+  }
+
+  private void indexPending() {
+    if (this.pending.isEmpty()) {
+      return;
+    }
+    boolean wasDeferred = this.deferred;
+    this.deferred = false;
+    List<AbstractEntity> entities = new ArrayList<>(this.pending.values());
+    this.pending.clear();
+    for (AbstractEntity entity : entities) {
+      this.addEntity(entity);
+    }
+    this.deferred = wasDeferred;
+  }
+
+  /**
+   * Indexes an entity and keeps the index up to date with its changes.
+   * Used for entities that are not part of a payload, like the root data entity.
+   *
+   * @param entity the entity to track.
+   */
+  public void track(AbstractEntity entity) {
+    if (entity != null) {
+      this.tracked.put(entity.getId(), entity);
+      this.addEntity(entity);
+      entity.addObserver(new TrackedEntityObserver(entity));
+    }
+  }
+
+  /**
+   * Stops tracking an entity and removes its references from the index.
+   *
+   * @param entity the entity that is no longer tracked.
+   */
+  public void untrack(AbstractEntity entity) {
+    if (entity != null && this.tracked.remove(entity.getId(), entity)) {
+      this.removeEntity(entity.getId());
+    }
+  }
+
+  /**
+   * Indexes all the properties of an entity, replacing what was indexed for its id before.
+   *
+   * @param entity the entity to index.
+   */
+  public void addEntity(AbstractEntity entity) {
+    if (this.defer(entity)) {
+      return;
+    }
+    this.removeEntity(entity.getId());
+    for (Iterator<String> it = entity.readProperties().fieldNames(); it.hasNext(); ) {
+      this.updateProperty(entity, it.next());
+    }
+    if (entity instanceof DataSetEntity) {
+      this.updateProperty(entity, HAS_PART);
+    }
+  }
+
+  /**
+   * Indexes a single property of an entity again.
+   *
+   * @param entity the entity that changed.
+   * @param propertyKey the property that changed.
+   */
+  public void updateProperty(AbstractEntity entity, String propertyKey) {
+    if (this.defer(entity)) {
+      return;
+    }
+    String id = entity.getId();
+    Map<String, List<ObjectNode>> current = getReferences(entity, propertyKey);
+    Map<String, Map<String, List<ObjectNode>>> properties =
+        this.outgoing.computeIfAbsent(id, k -> new HashMap<>());
+    Map<String, List<ObjectNode>> previous = current.isEmpty()
+        ? properties.remove(propertyKey) : properties.put(propertyKey, current);
+    for (String target : current.keySet()) {
+      this.referrers.computeIfAbsent(target, k -> new HashSet<>()).add(id);
+    }
+    if (previous != null) {
+      for (String target : previous.keySet()) {
+        if (!current.containsKey(target)) {
+          this.unlinkIfUnused(id, target, properties);
+        }
+      }
+    }
+    if (properties.isEmpty()) {
+      this.outgoing.remove(id);
+    }
+  }
+
+  /**
+   * Indexes a single reference that was added to a property of an entity.
+   * If it was appended as an id object it is expected to be the last value of the property.
+   *
+   * @param entity the entity that changed.
+   * @param propertyKey the property that got the new reference.
+   * @param referencedId the id that is now referenced.
+   */
+  public void addReference(AbstractEntity entity, String propertyKey, String referencedId) {
+    if (this.defer(entity)) {
+      return;
+    }
+    String id = entity.getId();
+    List<ObjectNode> nodes = this.outgoing
+        .computeIfAbsent(id, k -> new HashMap<>())
+        .computeIfAbsent(propertyKey, k -> new HashMap<>())
+        .computeIfAbsent(referencedId, k -> new ArrayList<>());
+    ObjectNode node = getLastIdNode(entity.readProperty(propertyKey));
+    if (node != null && referencedId.equals(node.get(ID).asText())
+        && nodes.stream().noneMatch(n -> n == node)) {
+      nodes.add(node);
+    }
+    this.referrers.computeIfAbsent(referencedId, k -> new HashSet<>()).add(id);
+  }
+
+  /**
+   * Removes a single reference from a property of an entity,
+   * if the property does not hold the id in any other way.
+   *
+   * @param entity the entity that changed.
+   * @param propertyKey the property that lost the reference.
+   * @param referencedId the id that was referenced.
+   */
+  public void removeReference(AbstractEntity entity, String propertyKey, String referencedId) {
+    if (this.defer(entity)) {
+      return;
+    }
+    String id = entity.getId();
+    Map<String, Map<String, List<ObjectNode>>> properties = this.outgoing.get(id);
+    if (properties == null || properties.get(propertyKey) == null) {
+      return;
+    }
+    Map<String, List<ObjectNode>> targets = properties.get(propertyKey);
+    List<ObjectNode> nodes = targets.get(referencedId);
+    if (nodes != null && nodes.stream().noneMatch(n -> referencedId.equals(n.path(ID).asText()))) {
+      targets.remove(referencedId);
+      if (targets.isEmpty()) {
+        properties.remove(propertyKey);
+      }
+      this.unlinkIfUnused(id, referencedId, properties);
+      if (properties.isEmpty()) {
+        this.outgoing.remove(id);
+      }
+    }
+  }
+
+  /**
+   * Removes the references that go out of the entity with this id.
+   *
+   * @param id the id of the entity.
+   */
+  public void removeEntity(String id) {
+    this.pending.remove(id);
+    Map<String, Map<String, List<ObjectNode>>> properties = this.outgoing.remove(id);
+    if (properties != null) {
+      for (Map<String, List<ObjectNode>> targets : properties.values()) {
+        for (String target : targets.keySet()) {
+          this.removeReferrer(target, id);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes every reference to an id, both from the properties of the referrers and
+   * from the index. Only the recorded id objects are changed, no property is scanned.
+   * The parts of a data set are not part of its properties and have to be removed by the caller.
+   *
+   * @param id the id that should no longer be referenced.
+   * @return the ids of the entities that referenced it.
+   */
+  public Set<String> removeReferencesTo(String id) {
+    return this.removeReferencesTo(Set.of(id)).keySet();
+  }
+
+  /**
+   * Removes every reference to any of the ids, see {@link #removeReferencesTo(String)}.
+   *
+   * @param ids the ids that should no longer be referenced.
+   * @return for every entity that referenced some of the ids,
+   *     the properties that held them together with the ids they held.
+   */
+  public Map<String, Map<String, Set<String>>> removeReferencesTo(Set<String> ids) {
+    this.indexPending();
+    Map<String, Set<String>> referenced = new HashMap<>();
+    for (String id : ids) {
+      Set<String> entities = this.referrers.remove(id);
+      if (entities != null) {
+        for (String entity : entities) {
+          referenced.computeIfAbsent(entity, k -> new HashSet<>()).add(id);
+        }
+      }
+    }
+    Map<String, Map<String, Set<String>>> removed = new HashMap<>();
+    for (var entry : referenced.entrySet()) {
+      String entity = entry.getKey();
+      Map<String, Set<String>> changed = new HashMap<>();
+      removed.put(entity, changed);
+      Map<String, Map<String, List<ObjectNode>>> properties = this.outgoing.get(entity);
+      if (properties == null) {
+        continue;
+      }
+      for (var it = properties.entrySet().iterator(); it.hasNext(); ) {
+        var property = it.next();
+        Map<String, List<ObjectNode>> targets = property.getValue();
+        for (String id : entry.getValue()) {
+          List<ObjectNode> nodes = targets.remove(id);
+          if (nodes != null) {
+            for (ObjectNode node : nodes) {
+              if (id.equals(node.path(ID).asText())) {
+                node.remove(ID);
+              }
+            }
+            changed.computeIfAbsent(property.getKey(), k -> new HashSet<>()).add(id);
+          }
+        }
+        if (targets.isEmpty()) {
+          it.remove();
+        }
+      }
+      if (properties.isEmpty()) {
+        this.outgoing.remove(entity);
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Returns the ids of the entities that reference the given id.
+   *
+   * @param id the referenced id.
+   * @return unmodifiable set of the referrers.
+   */
+  public Set<String> getReferrers(String id) {
+    this.indexPending();
+    Set<String> entities = this.referrers.get(id);
+    return entities == null ? Collections.emptySet() : Collections.unmodifiableSet(entities);
+  }
+
+  /**
+   * Returns the ids referenced by the entity with the given id.
+   *
+   * @param id the id of the entity.
+   * @return set of the referenced ids.
+   */
+  public Set<String> getOutgoing(String id) {
+    this.indexPending();
+    Map<String, Map<String, List<ObjectNode>>> properties = this.outgoing.get(id);
+    if (properties == null) {
+      return Collections.emptySet();
+    }
+    Set<String> result = new HashSet<>();
+    for (Map<String, List<ObjectNode>> targets : properties.values()) {
+      result.addAll(targets.keySet());
+    }
+    return result;
+  }
+
+  private void unlinkIfUnused(String id, String target,
+      Map<String, Map<String, List<ObjectNode>>> properties) {
+    for (Map<String, List<ObjectNode>> targets : properties.values()) {
+      if (targets.containsKey(target)) {
+        return;
+      }
+    }
+    this.removeReferrer(target, id);
+  }
+
+  private void removeReferrer(String target, String id) {
+    Set<String> entities = this.referrers.get(target);
+    if (entities != null) {
+      entities.remove(id);
+      if (entities.isEmpty()) {
+        this.referrers.remove(target);
+      }
+    }
+  }
+
+  private static ObjectNode getLastIdNode(JsonNode property) {
+    JsonNode node = property;
+    if (node != null && node.isArray()) {
+      node = node.size() == 0 ? null : node.get(node.size() - 1);
+    }
+    if (node != null && node.isObject() && node.has(ID)) {
+      return (ObjectNode) node;
+    }
+    return null;
+  }
+
+  private static Map<String, List<ObjectNode>> getReferences(AbstractEntity entity,
+      String propertyKey) {
+    Map<String, List<ObjectNode>> references = new HashMap<>();
+    JsonNode property = entity.readProperty(propertyKey);
+    if (property != null) {
+      if (property.isArray()) {
+        for (JsonNode element : property) {
+          addIdNode(references, element);
+        }
+      } else {
+        addIdNode(references, property);
+      }
+    }
+    // the parts of a data set are kept outside its properties
+    if (HAS_PART.equals(propertyKey) && entity instanceof DataSetEntity) {
+      for (String part : ((DataSetEntity) entity).hasPart) {
+        references.computeIfAbsent(part, k -> new ArrayList<>());
+      }
+    }
+    return references;
+  }
+
+  private static void addIdNode(Map<String, List<ObjectNode>> references, JsonNode node) {
+    if (node.isObject() && node.get(ID) != null) {
+      references.computeIfAbsent(node.get(ID).asText(), k -> new ArrayList<>())
+          .add((ObjectNode) node);
+    }
+  }
+
+  /**
+   * Keeps the index up to date with an entity that is not part of a payload.
+   */
+  private class TrackedEntityObserver implements Observer {
+
+    private final AbstractEntity entity;
+
+    TrackedEntityObserver(AbstractEntity entity) {
+      this.entity = entity;
+    }
+
+    private boolean isTracked(String entityId) {
+      return tracked.get(entityId) == this.entity;
+    }
+
+    @Override
+    public void update(String entityId) {
+      if (this.isTracked(entityId)) {
+        addEntity(this.entity);
+      }
+    }
+
+    @Override
+    public void update(String entityId, String propertyKey) {
+      if (this.isTracked(entityId)) {
+        updateProperty(this.entity, propertyKey);
+      }
+    }
+
+    @Override
+    public void referenceAdded(String entityId, String propertyKey, String referencedId) {
+      if (this.isTracked(entityId)) {
+        addReference(this.entity, propertyKey, referencedId);
+      }
+    }
+
+    @Override
+    public void referenceRemoved(String entityId, String propertyKey, String referencedId) {
+      if (this.isTracked(entityId)) {
+        removeReference(this.entity, propertyKey, referencedId);
+      }
+    }
+  }
+}
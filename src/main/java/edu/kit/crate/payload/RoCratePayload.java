@@ -4,16 +4,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.compact.ShapeTable;
 import edu.kit.crate.entities.contextual.ContextualEntity;
 import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.entities.data.DataSetEntity;
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import edu.kit.crate.special.JsonUtilFunctions;
+import edu.kit.crate.special.StringPool;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The crate payload is the class containing all the entities in the crate.
@@ -22,7 +31,15 @@ public class RoCratePayload implements CratePayload {
 
   private final HashMap<String, DataEntity> dataEntities;
   private final HashMap<String, ContextualEntity> contextualEntities;
-  private final HashMap<String, Set<String>> associatedItems;
+  private final ReferenceIndex referenceIndex;
+  private final HashMap<String, HashMap<String, AbstractEntity>> entitiesByType;
+  private final HashMap<String, Set<String>> indexedTypes;
+  private final HashMap<String, PropertyIndex> propertyIndexes;
+  private final List<Observer> observers;
+  private final Set<String> changedInBatch;
+  private final StringPool stringPool;
+  private final ShapeTable shapeTable;
+  private int batchDepth;
 
   /**
    * The default constructor for instantiating a payload.
@@ -30,7 +47,274 @@ public class RoCratePayload implements CratePayload {
   public RoCratePayload() {
     this.dataEntities = new HashMap<>();
     this.contextualEntities = new HashMap<>();
-    this.associatedItems = new HashMap<>();
+    this.referenceIndex = new ReferenceIndex();
+    this.entitiesByType = new HashMap<>();
+    this.indexedTypes = new HashMap<>();
+    this.propertyIndexes = new HashMap<>();
+    this.observers = new ArrayList<>();
+    this.changedInBatch = new LinkedHashSet<>();
+    this.stringPool = new StringPool();
+    this.shapeTable = new ShapeTable(this.stringPool);
+    this.batchDepth = 0;
+  }
+
+  /**
+   * Starts a batch of changes. Until the batch ends the reference index is not updated
+   * and the observers are not notified, the changed entities are only collected.
+   * Batches can be nested, only the outermost one ends.
+   */
+  @Override
+  public void startBatch() {
+    if (this.batchDepth++ == 0) {
+      this.referenceIndex.setDeferred(true);
+    }
+  }
+
+  /**
+   * Ends the batch of changes. Every entity changed during the batch is indexed
+   * and the observers are notified once for it.
+   */
+  @Override
+  public void endBatch() {
+    if (this.batchDepth == 0 || --this.batchDepth > 0) {
+      return;
+    }
+    this.referenceIndex.setDeferred(false);
+    List<String> changed = new ArrayList<>(this.changedInBatch);
+    this.changedInBatch.clear();
+    for (String id : changed) {
+      this.notifyObservers(id);
+    }
+  }
+
+  /**
+   * Adds an observer that is notified whenever an entity of the payload
+   * is added, changed or removed.
+   *
+   * @param observer the observer that should be notified.
+   */
+  @Override
+  public void addObserver(Observer observer) {
+    this.observers.add(observer);
+  }
+
+  /**
+   * Notifies the payload observers that the entity with this id changed.
+   *
+   * @param entityId the id of the changed entity.
+   */
+  public void notifyObservers(String entityId) {
+    if (this.batchDepth > 0) {
+      this.changedInBatch.add(entityId);
+      return;
+    }
+    for (var obs : this.observers) {
+      obs.update(entityId);
+    }
+  }
+
+  /**
+   * Tells the observers that the live properties of an entity of the payload were handed out.
+   *
+   * @param entityId the id of the entity.
+   */
+  public void entityExposed(String entityId) {
+    if (this.getEntityById(entityId) == null) {
+      return;
+    }
+    for (var obs : this.observers) {
+      obs.propertiesExposed(entityId);
+    }
+  }
+
+  /**
+   * Updates the reference index after a change of an entity and notifies the observers.
+   *
+   * @param entityId the id of the changed entity.
+   * @param propertyKey the changed property, or null if the whole entity changed.
+   */
+  public void entityChanged(String entityId, String propertyKey) {
+    AbstractEntity entity = this.getEntityById(entityId);
+    if (entity == null) {
+      // the entity is no longer part of this payload
+      return;
+    }
+    if (propertyKey == null) {
+      this.referenceIndex.addEntity(entity);
+    } else {
+      this.referenceIndex.updateProperty(entity, propertyKey);
+    }
+    if (propertyKey == null || propertyKey.equals("@type")) {
+      this.addToTypeIndex(entity);
+    }
+    this.updatePropertyIndexes(entity, propertyKey);
+    this.notifyObservers(entityId);
+  }
+
+  /**
+   * Declares a hash index on a property, used by queries for equality conditions.
+   *
+   * @param propertyKey the key of the property.
+   */
+  @Override
+  public void addHashIndex(String propertyKey) {
+    this.addPropertyIndex(propertyKey, new PropertyIndex.HashPropertyIndex());
+  }
+
+  /**
+   * Declares a sorted index on a property, used by queries for equality and range conditions.
+   *
+   * @param propertyKey the key of the property.
+   */
+  @Override
+  public void addSortedIndex(String propertyKey) {
+    this.addPropertyIndex(propertyKey, new PropertyIndex.SortedPropertyIndex());
+  }
+
+  @Override
+  public EntityQuery query() {
+    return new EntityQuery(this);
+  }
+
+  PropertyIndex getPropertyIndex(String propertyKey) {
+    return this.propertyIndexes.get(propertyKey);
+  }
+
+  private void addPropertyIndex(String propertyKey, PropertyIndex index) {
+    this.forEachEntity(entity -> index.update(entity.getId(), entity.readProperty(propertyKey)));
+    this.propertyIndexes.put(propertyKey, index);
+  }
+
+  private void updatePropertyIndexes(AbstractEntity entity, String propertyKey) {
+    if (propertyKey == null) {
+      for (var index : this.propertyIndexes.entrySet()) {
+        index.getValue().update(entity.getId(), entity.readProperty(index.getKey()));
+      }
+    } else {
+      PropertyIndex index = this.propertyIndexes.get(propertyKey);
+      if (index != null) {
+        index.update(entity.getId(), entity.readProperty(propertyKey));
+      }
+    }
+  }
+
+  private void removeFromPropertyIndexes(String id) {
+    for (PropertyIndex index : this.propertyIndexes.values()) {
+      index.remove(id);
+    }
+  }
+
+  /**
+   * Returns the entities that have the given type.
+   * The result is an unmodifiable live view, so it is returned without going over the payload.
+   *
+   * @param type the type of the entities, ex. "Person".
+   * @return the entities of this type.
+   */
+  @Override
+  public Collection<AbstractEntity> getEntitiesByType(String type) {
+    HashMap<String, AbstractEntity> entities = this.entitiesByType.get(type);
+    if (entities == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableCollection(entities.values());
+  }
+
+  private void addToTypeIndex(AbstractEntity entity) {
+    this.removeFromTypeIndex(entity.getId());
+    Set<String> types = Set.copyOf(entity.getTypes());
+    for (String type : types) {
+      this.entitiesByType.computeIfAbsent(type, k -> new HashMap<>()).put(entity.getId(), entity);
+    }
+    this.indexedTypes.put(entity.getId(), types);
+  }
+
+  private void removeFromTypeIndex(String id) {
+    Set<String> types = this.indexedTypes.remove(id);
+    if (types != null) {
+      for (String type : types) {
+        HashMap<String, AbstractEntity> entities = this.entitiesByType.get(type);
+        entities.remove(id);
+        if (entities.isEmpty()) {
+          this.entitiesByType.remove(type);
+        }
+      }
+    }
+  }
+
+  /**
+   * Updates the reference index after a single reference of an entity was added or removed
+   * and notifies the observers.
+   *
+   * @param entityId the id of the changed entity.
+   * @param propertyKey the changed property.
+   * @param referencedId the added or removed reference.
+   * @param added true if the reference was added, false if it was removed.
+   */
+  public void referenceChanged(String entityId, String propertyKey, String referencedId,
+      boolean added) {
+    AbstractEntity entity = this.getEntityById(entityId);
+    if (entity == null) {
+      return;
+    }
+    if (added) {
+      this.referenceIndex.addReference(entity, propertyKey, referencedId);
+    } else {
+      this.referenceIndex.removeReference(entity, propertyKey, referencedId);
+    }
+    this.updatePropertyIndexes(entity, propertyKey);
+    this.notifyObservers(entityId);
+  }
+
+  /**
+   * Returns the ids of the entities that reference the given id.
+   *
+   * @param id the referenced id.
+   * @return unmodifiable set of the ids of the referrers.
+   */
+  public Set<String> getReferrers(String id) {
+    return this.referenceIndex.getReferrers(id);
+  }
+
+  /**
+   * Returns the ids referenced by the entity with the given id.
+   *
+   * @param id the id of the entity.
+   * @return set of the referenced ids.
+   */
+  @Override
+  public Set<String> getReferencedIds(String id) {
+    return this.referenceIndex.getOutgoing(id);
+  }
+
+  /**
+   * Returns the graph of the entities in the payload and their links.
+   *
+   * @return the graph, following the reference index of the payload.
+   */
+  @Override
+  public EntityGraph getGraph() {
+    return new EntityGraph(this::getEntityById, this.referenceIndex::getOutgoing);
+  }
+
+  /**
+   * Moves the properties of all the entities in the payload to the compact store.
+   * Entities with the same property keys share one shape and equal text values
+   * are stored once for the whole payload.
+   */
+  @Override
+  public void compactEntities() {
+    this.forEachEntity(entity -> entity.compact(this.shapeTable));
+  }
+
+  /**
+   * Returns the string pool shared by the entities of the payload.
+   *
+   * @return the string pool.
+   */
+  @Override
+  public StringPool getStringPool() {
+    return this.stringPool;
   }
 
   @Override
@@ -55,16 +339,28 @@ public class RoCratePayload implements CratePayload {
 
   @Override
   public void addDataEntity(DataEntity dataEntity) {
-    this.addToAssociatedItems(dataEntity);
     this.dataEntities.put(dataEntity.getId(), dataEntity);
+    this.referenceIndex.addEntity(dataEntity);
+    this.addToTypeIndex(dataEntity);
+    this.updatePropertyIndexes(dataEntity, null);
     dataEntity.addObserver(new EntityObserver(this));
+    this.notifyObservers(dataEntity.getId());
+    if (dataEntity.isPropertiesExposed()) {
+      this.entityExposed(dataEntity.getId());
+    }
   }
 
   @Override
   public void addContextualEntity(ContextualEntity contextualEntity) {
-    this.addToAssociatedItems(contextualEntity);
     this.contextualEntities.put(contextualEntity.getId(), contextualEntity);
+    this.referenceIndex.addEntity(contextualEntity);
+    this.addToTypeIndex(contextualEntity);
+    this.updatePropertyIndexes(contextualEntity, null);
     contextualEntity.addObserver(new EntityObserver(this));
+    this.notifyObservers(contextualEntity.getId());
+    if (contextualEntity.isPropertiesExposed()) {
+      this.entityExposed(contextualEntity.getId());
+    }
   }
 
   @Override
@@ -87,44 +383,77 @@ public class RoCratePayload implements CratePayload {
     }
   }
 
+  @Override
+  public List<AbstractEntity> getAllEntities() {
+    List<AbstractEntity> list = new ArrayList<>(this.dataEntities.values());
+    list.addAll(this.contextualEntities.values());
+    return list;
+  }
+
+  @Override
+  public List<DataEntity> getAllDataEntities() {
+    return new ArrayList<>(this.dataEntities.values());
+  }
+
+  @Override
+  public List<ContextualEntity> getAllContextualEntities() {
+    return new ArrayList<>(this.contextualEntities.values());
+  }
+
   /**
-   * This method is used to add an entity  linked entities' ids to the map of associatedItems.
-   * This will be then used to make the removal of entities from the crate faster.
+   * Returns an unmodifiable live view of the data entities, nothing is copied.
    *
-   * @param abstractEntity the abstract entity passed to the method.
+   * @return the view of the data entities.
    */
-  public void addToAssociatedItems(AbstractEntity abstractEntity) {
-    var set = abstractEntity.getLinkedTo();
-    for (var e : set) {
-      this.associatedItems.computeIfAbsent(e, k -> new HashSet<>());
-      this.associatedItems.get(e).add(abstractEntity.getId());
-    }
+  @Override
+  public Collection<DataEntity> getDataEntitiesView() {
+    return Collections.unmodifiableCollection(this.dataEntities.values());
   }
 
+  /**
+   * Returns an unmodifiable live view of the contextual entities, nothing is copied.
+   *
+   * @return the view of the contextual entities.
+   */
   @Override
-  public List<AbstractEntity> getAllEntities() {
-    List<AbstractEntity> list = new ArrayList<>();
-    list.addAll(this.getAllDataEntities());
-    list.addAll(this.getAllContextualEntities());
-    return list;
+  public Collection<ContextualEntity> getContextualEntitiesView() {
+    return Collections.unmodifiableCollection(this.contextualEntities.values());
   }
 
+  /**
+   * Returns a live view of all the entities, first the data and then the contextual ones.
+   * The iterators of the view do not support removal.
+   *
+   * @return iterable over all the entities.
+   */
   @Override
-  public List<DataEntity> getAllDataEntities() {
-    List<DataEntity> list = new ArrayList<>();
-    for (HashMap.Entry<String, DataEntity> s : this.dataEntities.entrySet()) {
-      list.add(s.getValue());
-    }
-    return list;
+  public Iterable<AbstractEntity> getAllEntitiesView() {
+    return () -> new Iterator<>() {
+      private final Iterator<DataEntity> data = dataEntities.values().iterator();
+      private final Iterator<ContextualEntity> contextual = contextualEntities.values().iterator();
+
+      @Override
+      public boolean hasNext() {
+        return this.data.hasNext() || this.contextual.hasNext();
+      }
+
+      @Override
+      public AbstractEntity next() {
+        return this.data.hasNext() ? this.data.next() : this.contextual.next();
+      }
+    };
   }
 
   @Override
-  public List<ContextualEntity> getAllContextualEntities() {
-    List<ContextualEntity> list = new ArrayList<>();
-    for (HashMap.Entry<String, ContextualEntity> s : this.contextualEntities.entrySet()) {
-      list.add(s.getValue());
-    }
-    return list;
+  public Stream<AbstractEntity> streamAllEntities() {
+    return Stream.concat(this.dataEntities.values().stream(),
+        this.contextualEntities.values().stream());
+  }
+
+  @Override
+  public void forEachEntity(Consumer<? super AbstractEntity> action) {
+    this.dataEntities.values().forEach(action);
+    this.contextualEntities.values().forEach(action);
   }
 
   @Override
@@ -132,12 +461,7 @@ public class RoCratePayload implements CratePayload {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
 
     ArrayNode node = objectMapper.createArrayNode();
-    for (DataEntity ent : this.getAllDataEntities()) {
-      node.add(objectMapper.convertValue(ent, ObjectNode.class));
-    }
-    for (ContextualEntity ent : this.getAllContextualEntities()) {
-      node.add(objectMapper.convertValue(ent, ObjectNode.class));
-    }
+    this.forEachEntity(ent -> node.add(objectMapper.convertValue(ent, ObjectNode.class)));
     return node;
   }
 
@@ -145,13 +469,57 @@ public class RoCratePayload implements CratePayload {
   public void removeEntityById(String id) {
     this.dataEntities.remove(id);
     this.contextualEntities.remove(id);
-    this.removeAllOccurrencesOf(id);
+    this.referenceIndex.removeEntity(id);
+    this.removeFromTypeIndex(id);
+    this.removeFromPropertyIndexes(id);
+    this.removeAllOccurrencesOf(Set.of(id));
+    this.notifyObservers(id);
   }
 
-  private void removeAllOccurrencesOf(String entityId) {
-    for (var e : this.getAllEntitiesFromIds(this.associatedItems.get(entityId))) {
-      JsonUtilFunctions.removeFieldsWith(entityId, e.getProperties());
+  /**
+   * Removes all the entities with these ids together with every reference to them.
+   * Each entity that referenced some of them is changed and notified only once.
+   *
+   * @param ids the ids of the entities to remove.
+   */
+  @Override
+  public void removeEntitiesByIds(Set<String> ids) {
+    for (String id : ids) {
+      this.dataEntities.remove(id);
+      this.contextualEntities.remove(id);
+      this.referenceIndex.removeEntity(id);
+      this.removeFromTypeIndex(id);
+      this.removeFromPropertyIndexes(id);
+    }
+    this.removeAllOccurrencesOf(ids);
+    for (String id : ids) {
+      this.notifyObservers(id);
+    }
+  }
+
+  private void removeAllOccurrencesOf(Set<String> ids) {
+    // the index removes the id objects directly, only the parts of data sets
+    // and the plain string values in the referrers remain
+    var removed = this.referenceIndex.removeReferencesTo(ids);
+    this.startBatch();
+    for (var e : this.getAllEntitiesFromIds(removed.keySet())) {
+      Map<String, Set<String>> properties = removed.get(e.getId());
+      Set<String> changed = new HashSet<>(properties.keySet());
+      if (e instanceof DataSetEntity && properties.containsKey("hasPart")) {
+        ((DataSetEntity) e).removeFromHasPart(properties.get("hasPart"));
+      }
+      ObjectNode values = e.readProperties();
+      Set<String> changedValues = JsonUtilFunctions.removeValuesFrom(ids, values);
+      if (!changedValues.isEmpty() && e.isCompact()) {
+        // compact properties are read as a copy, so the change is stored back
+        e.setProperties(values);
+      }
+      changed.addAll(changedValues);
+      for (String key : changed) {
+        this.entityChanged(e.getId(), key);
+      }
     }
+    this.endBatch();
   }
 
   private List<AbstractEntity> getAllEntitiesFromIds(Set<String> set) {
@@ -1,7 +1,14 @@
 package edu.kit.crate.preview;
 
+import edu.kit.crate.Crate;
+import edu.kit.crate.special.ZipStreamUtil;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
 
 /**
  * Interface for the ROCrate preview.
@@ -16,4 +23,38 @@ public interface CratePreview {
 
   void saveAllToFolder(File folder);
 
+  /**
+   * Writes the preview as entries of a zip stream.
+   * By default the preview is saved to a temporary folder next to the metadata of the crate,
+   * and the files created there are copied to the stream.
+   *
+   * @param crate the crate the preview belongs to.
+   * @param zipStream the stream where the preview is written.
+   */
+  default void saveAllToStream(Crate crate, ZipOutputStream zipStream) {
+    try {
+      File folder = Files.createTempDirectory("ro-crate-preview").toFile();
+      try {
+        File metadata = new File(folder, "ro-crate-metadata.json");
+        try (OutputStream outputStream = FileUtils.openOutputStream(metadata)) {
+          crate.writeJsonMetadata(outputStream);
+        }
+        this.saveAllToFolder(folder);
+        File html = new File(folder, "ro-crate-preview.html");
+        if (html.isFile()) {
+          ZipStreamUtil.addFileToZipStream(html, "ro-crate-preview.html", zipStream);
+        }
+        File otherFiles = new File(folder, "ro-crate-preview_files");
+        if (otherFiles.isDirectory()) {
+          ZipStreamUtil.addFolderToZipStream(otherFiles, "ro-crate-preview_files", zipStream);
+        }
+      } finally {
+        FileUtils.deleteDirectory(folder);
+      }
+    } catch (IOException e) {
+      System.err.println("Exception writing preview files to zip stream");
+      e.printStackTrace();
+    }
+  }
+
 }
@@ -1,9 +1,12 @@
 package edu.kit.crate.preview;
 
+import edu.kit.crate.Crate;
+import edu.kit.crate.special.ZipStreamUtil;
 import java.io.File;
 import java.io.IOException;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
 import net.lingala.zip4j.model.ZipParameters;
 import org.apache.commons.io.FileUtils;
 
@@ -65,4 +68,19 @@ public class CustomPreview implements CratePreview {
       e.printStackTrace();
     }
   }
+
+  @Override
+  public void saveAllToStream(Crate crate, ZipOutputStream zipStream) {
+    try {
+      if (this.metadataHtml != null) {
+        ZipStreamUtil.addFileToZipStream(this.metadataHtml, "ro-crate-preview.html", zipStream);
+      }
+      if (this.otherFiles != null) {
+        ZipStreamUtil.addFolderToZipStream(this.otherFiles, "ro-crate-preview_files", zipStream);
+      }
+    } catch (IOException e) {
+      System.err.println("Exception writing preview files to zip stream");
+      e.printStackTrace();
+    }
+  }
 }
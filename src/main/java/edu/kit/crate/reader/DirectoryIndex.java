@@ -0,0 +1,138 @@
+package edu.kit.crate.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of all the files and folders in the content of a crate.
+ * The directory is walked once when the crate is read,
+ * after that the data entities are resolved against the index
+ * instead of checking the file system for every one of them.
+ */
+class DirectoryIndex {
+
+  private final Path directory;
+  private final Path root;
+  private final Set<String> paths;
+  private final List<File> topLevel;
+
+  private DirectoryIndex(Path directory, Path root, Set<String> paths, List<File> topLevel) {
+    this.directory = directory;
+    this.root = root;
+    this.paths = paths;
+    this.topLevel = topLevel;
+  }
+
+  /**
+   * Walks a directory and builds its index.
+   *
+   * @param directory the directory with the content of the crate.
+   * @param parallel if the top level folders should be walked in parallel.
+   * @return the index of the directory.
+   */
+  static DirectoryIndex build(File directory, boolean parallel) {
+    Path root = directory.toPath().toAbsolutePath().normalize();
+    Set<String> paths = parallel ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    List<File> topLevel = new ArrayList<>();
+    List<Path> folders = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+      for (Path path : stream) {
+        topLevel.add(directory.toPath().resolve(path.getFileName()).toFile());
+        paths.add(root.relativize(path).toString());
+        if (Files.isDirectory(path)) {
+          folders.add(path);
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Cannot list the content of " + directory.getPath());
+      e.printStackTrace();
+    }
+    if (parallel) {
+      folders.parallelStream().forEach(folder -> walk(root, folder, paths));
+    } else {
+      folders.forEach(folder -> walk(root, folder, paths));
+    }
+    return new DirectoryIndex(directory.toPath(), root, paths, topLevel);
+  }
+
+  private static void walk(Path root, Path folder, Set<String> paths) {
+    FileVisitor<Path> visitor = new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        paths.add(root.relativize(dir).toString());
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        paths.add(root.relativize(file).toString());
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        if (exc instanceof FileSystemLoopException) {
+          // the link itself is in the crate, its target is already walked
+          paths.add(root.relativize(file).toString());
+        } else {
+          System.err.println("Cannot read " + file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    };
+    try {
+      // folders linked into the crate are part of its content too
+      Files.walkFileTree(folder, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+          visitor);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Finds the file or folder of a data entity.
+   *
+   * @param id the id of the data entity, a path relative to the crate.
+   * @return the file, or null if the crate does not contain it.
+   */
+  File resolve(String id) {
+    Path path;
+    try {
+      path = this.root.resolve(id).normalize();
+    } catch (InvalidPathException e) {
+      return null;
+    }
+    if (!path.startsWith(this.root) || path.equals(this.root)) {
+      return null;
+    }
+    if (this.paths.contains(this.root.relativize(path).toString())) {
+      return this.directory.resolve(id).toFile();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the files and folders directly in the crate directory.
+   *
+   * @return the list of the top level files.
+   */
+  List<File> getTopLevelFiles() {
+    return this.topLevel;
+  }
+}
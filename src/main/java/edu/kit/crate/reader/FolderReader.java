@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -21,13 +23,19 @@ public class FolderReader implements ReaderStrategy {
     ObjectMapper objectMapper = MyObjectMapper.getMapper();
     ObjectNode objectNode = objectMapper.createObjectNode();
     try {
-      objectNode = objectMapper.readTree(metadata.toFile()).deepCopy();
+      objectNode = (ObjectNode) objectMapper.readTree(metadata.toFile());
     } catch (IOException e) {
       e.printStackTrace();
     }
     return objectNode;
   }
 
+  @Override
+  public InputStream openMetadataJson(String location) throws IOException {
+    return Files.newInputStream(
+        new File(location).toPath().resolve("ro-crate-metadata.json"));
+  }
+
   @Override
   public File readContent(String location) {
     return new File(location);
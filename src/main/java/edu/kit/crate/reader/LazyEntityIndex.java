@@ -0,0 +1,221 @@
+package edu.kit.crate.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.payload.LazyEntitySource;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Index of the entities in a ro-crate-metadata.json file.
+ * For every node of the graph only the id, the types and the byte range in the file are kept.
+ * An entity is built by parsing only its byte range the first time it is needed.
+ */
+class LazyEntityIndex implements LazyEntitySource {
+
+  private final File metadata;
+  private final LinkedHashMap<String, Entry> entries;
+  private final HashMap<String, LinkedHashSet<String>> idsByType;
+  private final List<String> descriptorCandidates;
+  private JsonNode context;
+  private Function<ObjectNode, AbstractEntity> builder;
+
+  private LazyEntityIndex(File metadata) {
+    this.metadata = metadata;
+    this.entries = new LinkedHashMap<>();
+    this.idsByType = new HashMap<>();
+    this.descriptorCandidates = new ArrayList<>();
+  }
+
+  /**
+   * Scans a metadata file and records the entities of its graph.
+   * Only the fields needed for the index are parsed, the others are skipped.
+   *
+   * @param metadata the ro-crate-metadata.json file.
+   * @return the index of the file.
+   * @throws IOException if the file can not be read.
+   */
+  static LazyEntityIndex scan(File metadata) throws IOException {
+    LazyEntityIndex index = new LazyEntityIndex(metadata);
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    try (JsonParser parser = objectMapper.getFactory().createParser(metadata)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("The metadata json of the crate is not a json object.");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if (field.equals("@graph") && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+              index.scanEntity(parser);
+            } else {
+              parser.skipChildren();
+            }
+          }
+        } else if (field.equals("@context")) {
+          index.context = objectMapper.readTree(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return index;
+  }
+
+  private void scanEntity(JsonParser parser) throws IOException {
+    long start = parser.getTokenLocation().getByteOffset();
+    String id = null;
+    List<String> types = new ArrayList<>();
+    boolean conformsTo = false;
+    boolean about = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (field.equals("@id") && value == JsonToken.VALUE_STRING) {
+        id = parser.getText();
+      } else if (field.equals("@type") && value == JsonToken.VALUE_STRING) {
+        types.add(parser.getText());
+      } else if (field.equals("@type") && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            types.add(parser.getText());
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        conformsTo |= field.equals("conformsTo");
+        about |= field.equals("about");
+        parser.skipChildren();
+      }
+    }
+    long end = parser.getTokenLocation().getByteOffset() + 1;
+    if (id == null || this.entries.containsKey(id)) {
+      return;
+    }
+    this.entries.put(id, new Entry(start, (int) (end - start), types.toArray(new String[0])));
+    for (String type : types) {
+      this.idsByType.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+    }
+    if (conformsTo && about) {
+      this.descriptorCandidates.add(id);
+    }
+  }
+
+  /**
+   * Parses the byte range of an entity.
+   *
+   * @param id the id of the entity.
+   * @return the json of the entity, or null if it is not in the index or can not be read.
+   */
+  ObjectNode readNode(String id) {
+    Entry entry = this.entries.get(id);
+    if (entry == null) {
+      return null;
+    }
+    byte[] bytes = new byte[entry.length];
+    try (RandomAccessFile file = new RandomAccessFile(this.metadata, "r")) {
+      file.seek(entry.start);
+      file.readFully(bytes);
+      JsonNode node = MyObjectMapper.getMapper().readTree(bytes);
+      if (node instanceof ObjectNode) {
+        return (ObjectNode) node;
+      }
+      System.err.println("The entity " + id + " in " + this.metadata.getPath()
+          + " is not a json object, the file may have changed since the crate was read.");
+      return null;
+    } catch (IOException e) {
+      System.err.println("Cannot read the entity " + id + " from " + this.metadata.getPath());
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  JsonNode getContext() {
+    return this.context;
+  }
+
+  /**
+   * Returns the ids of the nodes that have both "conformsTo" and "about",
+   * in the order of the graph. The metadata descriptor is one of them.
+   *
+   * @return the ids of the possible descriptors.
+   */
+  List<String> getDescriptorCandidates() {
+    return this.descriptorCandidates;
+  }
+
+  /**
+   * Removes an entity from the index without building it.
+   *
+   * @param id the id of the entity.
+   */
+  void remove(String id) {
+    Entry entry = this.entries.remove(id);
+    if (entry != null) {
+      for (String type : entry.types) {
+        this.idsByType.get(type).remove(id);
+      }
+    }
+  }
+
+  void setBuilder(Function<ObjectNode, AbstractEntity> builder) {
+    this.builder = builder;
+  }
+
+  @Override
+  public boolean contains(String id) {
+    return this.entries.containsKey(id);
+  }
+
+  @Override
+  public AbstractEntity materialize(String id) {
+    ObjectNode node = this.readNode(id);
+    if (node == null) {
+      // the entity stays in the index, so the next lookup tries again
+      return null;
+    }
+    AbstractEntity entity = this.builder.apply(node);
+    this.remove(id);
+    return entity;
+  }
+
+  @Override
+  public Collection<String> getIds() {
+    return Collections.unmodifiableSet(this.entries.keySet());
+  }
+
+  @Override
+  public Collection<String> getIdsByType(String type) {
+    LinkedHashSet<String> ids = this.idsByType.get(type);
+    return ids == null ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+  }
+
+  private static final class Entry {
+
+    private final long start;
+    private final int length;
+    private final String[] types;
+
+    Entry(long start, int length, String[] types) {
+      this.start = start;
+      this.length = length;
+      this.types = types;
+    }
+  }
+}
@@ -1,7 +1,11 @@
 package edu.kit.crate.reader;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Interface for the strategy fo the reader class.
@@ -15,4 +19,21 @@ public interface ReaderStrategy {
   ObjectNode readMetadataJson(String location);
 
   File readContent(String location);
+
+  /**
+   * Opens the ro-crate-metadata.json as a stream, used when reading in streaming mode.
+   * The default implementation serializes the result of readMetadataJson,
+   * strategies should override it to read the file directly.
+   *
+   * @param location the location of the crate.
+   * @return the stream of the metadata json, closed by the caller.
+   * @throws IOException if the metadata json can not be opened.
+   */
+  default InputStream openMetadataJson(String location) throws IOException {
+    ObjectNode metadata = this.readMetadataJson(location);
+    if (metadata == null) {
+      throw new IOException("The metadata json of " + location + " can not be read.");
+    }
+    return new ByteArrayInputStream(MyObjectMapper.getMapper().writeValueAsBytes(metadata));
+  }
 }
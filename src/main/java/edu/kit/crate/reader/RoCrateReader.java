@@ -1,23 +1,35 @@
 package edu.kit.crate.reader;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.crate.Crate;
 import edu.kit.crate.RoCrate;
 import edu.kit.crate.context.CrateMetadataContext;
 import edu.kit.crate.context.RoCrateMetadataContext;
+import edu.kit.crate.entities.AbstractEntity;
 import edu.kit.crate.entities.contextual.ContextualEntity;
 import edu.kit.crate.entities.data.DataEntity;
 import edu.kit.crate.entities.data.RootDataEntity;
-import edu.kit.crate.validation.JsonSchemaValidation;
-import edu.kit.crate.validation.Validator;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.special.JsonUtilFunctions;
+import edu.kit.crate.special.StringPool;
 import java.io.File;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The reader used for reading crates from the outside into the library.
@@ -26,11 +38,92 @@ import java.util.Set;
  */
 public class RoCrateReader {
 
+  private static final int CHUNK_SIZE = 256;
+
   private final ReaderStrategy reader;
-  private Crate crate;
+  private RoCrate crate;
+  private boolean internStrings;
+  private boolean streaming;
+  private boolean parallelListing;
+  private boolean lazy;
+  private ForkJoinPool pool;
 
   public RoCrateReader(ReaderStrategy reader) {
     this.reader = reader;
+    this.internStrings = false;
+    this.streaming = false;
+    this.parallelListing = false;
+    this.lazy = false;
+  }
+
+  /**
+   * Sets if the strings of the read entities should be taken from the string pool of the crate.
+   * Then the ids, the types and the "@id" references are stored once per crate.
+   * This is off by default, it only pays off on crates where these values repeat a lot.
+   *
+   * @param internStrings true if the strings should be pooled.
+   */
+  public void setInternStrings(boolean internStrings) {
+    this.internStrings = internStrings;
+  }
+
+  private StringPool getStringPool() {
+    return this.internStrings ? this.crate.getStringPool() : null;
+  }
+
+  /**
+   * Sets if the content of the crate should be listed in parallel.
+   * The content is listed once per read, to find the files of the data entities
+   * and the untracked files. On network file systems listing the top level folders
+   * in parallel can hide the latency of the file system.
+   *
+   * @param parallelListing true if the top level folders should be listed in parallel.
+   */
+  public void setParallelListing(boolean parallelListing) {
+    this.parallelListing = parallelListing;
+  }
+
+  /**
+   * Sets the pool on which the entities of the graph are built.
+   * Once the descriptor and the root are known every other node of the graph
+   * is validated and built independently, so the graph is split in chunks built on the pool.
+   * The built entities are added to the crate in the order of the graph afterwards,
+   * in a single batch like in the sequential mode.
+   * The streaming mode builds one entity at a time and does not use the pool.
+   *
+   * @param pool the pool, or null to build the entities sequentially.
+   */
+  public void setMaterializationPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sets if the crates should be read in streaming mode.
+   * In this mode the "@graph" of the metadata file is parsed token by token
+   * and only one entity node is kept in memory at a time,
+   * so the whole metadata json is never loaded as a tree.
+   * The file is passed over more than once, to find the descriptor and the root first.
+   *
+   * @param streaming true if the crates should be read in streaming mode.
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  /**
+   * Sets if the crates should be opened lazily.
+   * In this mode the metadata file is only scanned on read, and for every entity
+   * only its id, its types and its byte range in the file are kept.
+   * An entity is parsed and built the first time it is looked up by id or type,
+   * operations on the whole crate (writing, deleting, etc.) build all the remaining entities.
+   * Only crates read from a folder are opened lazily, the metadata file has to stay
+   * where it is as long as the crate is used. Crates read from zip archives are read fully,
+   * since the archive is extracted to a folder that the next read clears.
+   *
+   * @param lazy true if the crates should be opened lazily.
+   */
+  public void setLazy(boolean lazy) {
+    this.lazy = lazy;
   }
 
   /**
@@ -41,17 +134,20 @@ public class RoCrateReader {
    * @return the read RO-crate
    */
   public Crate readCrate(String location) {
+    if (this.lazy && this.reader instanceof FolderReader) {
+      return this.readCrateLazy(location);
+    }
+    if (this.streaming) {
+      return this.readCrateStreaming(location);
+    }
     crate = new RoCrate();
     // get the ro-crate-medata.json
     ObjectNode metadataJson = reader.readMetadataJson(location);
     // get the content of the crate
-    File files = reader.readContent(location);
+    DirectoryIndex files = this.indexContent(location);
 
     // this set will contain the files that are associated with entities
-    HashSet<String> usedFiles = new HashSet<>();
-    usedFiles.add(new File(location).toPath().resolve("ro-crate-metadata.json").toFile().getPath());
-    usedFiles.add(new File(location).toPath().resolve("ro-crate-preview.html").toFile().getPath());
-    usedFiles.add(new File(location).toPath().resolve("ro-crate-preview_files").toFile().getPath());
+    HashSet<String> usedFiles = this.getDefaultUsedFiles(location);
 
     JsonNode context = metadataJson.get("@context");
 
@@ -60,96 +156,439 @@ public class RoCrateReader {
     JsonNode graph = metadataJson.get("@graph");
 
     if (graph.isArray()) {
+      Set<Integer> rootEntities = setRootEntities((ArrayNode) graph);
+      this.addEntities((ArrayNode) graph, rootEntities, files, usedFiles);
+    }
+    this.setUntrackedFiles(files, usedFiles);
+    this.crate.validate();
+    return this.crate;
+  }
 
-      graph = setRootEntities((ArrayNode) graph);
-      for (JsonNode node : graph) {
-        // if the id is in the root has part we should add this entity as data entity
-        if (this.crate.getRootDataEntity().hasInHasPart(node.get("@id").asText())) {
-          File loc = checkFolderHasFile(node.get("@id").asText(), files);
-          if (loc != null) {
-            usedFiles.add(loc.getPath());
+  private Crate readCrateStreaming(String location) {
+    crate = new RoCrate();
+    DirectoryIndex files = this.indexContent(location);
+    HashSet<String> usedFiles = this.getDefaultUsedFiles(location);
+
+    // first pass: the context, the descriptors and (usually) the root
+    List<GraphNode> descriptors = new ArrayList<>();
+    Set<String> aboutIds = new HashSet<>();
+    HashMap<String, GraphNode> roots = new HashMap<>();
+    int[] position = {0};
+    JsonNode context = this.streamGraph(location, node -> {
+      int i = position[0]++;
+      if (isDescriptor(node)) {
+        descriptors.add(new GraphNode(i, node));
+        aboutIds.add(getAboutId(node));
+      }
+      if (aboutIds.contains(getId(node))) {
+        roots.putIfAbsent(getId(node), new GraphNode(i, node));
+      }
+    });
+    this.crate.setMetadataContext(new RoCrateMetadataContext(context));
+    // the roots of the first pass are only the first nodes with their ids,
+    // if nothing came before the first descriptor and it describes one of them
+    if (descriptors.isEmpty() || descriptors.get(0).position != 0
+        || !roots.containsKey(getAboutId(descriptors.get(0).node))) {
+      roots.clear();
+      position[0] = 0;
+      this.streamGraph(location, node -> {
+        int i = position[0]++;
+        if (aboutIds.contains(getId(node))) {
+          roots.putIfAbsent(getId(node), new GraphNode(i, node));
+        }
+      });
+    }
+    RootEntities<GraphNode> rootEntities =
+        findRootEntities(descriptors, descriptor -> descriptor.node, roots::get);
+    if (rootEntities == null) {
+      return this.crate;
+    }
+    int descriptorPosition = rootEntities.descriptor.position;
+    int rootPosition = rootEntities.root == null ? -1 : rootEntities.root.position;
+    this.setJsonDescriptor(rootEntities.descriptor.node);
+    if (rootEntities.root != null) {
+      this.setRootDataEntity(rootEntities.root.node);
+    }
+    descriptors.clear();
+    roots.clear();
+
+    // last pass: all the other entities, one at a time, merged in one batch
+    position[0] = 0;
+    try (RoCrate.Batch batch = this.crate.startBatch()) {
+      this.streamGraph(location, node -> {
+        int i = position[0]++;
+        if (i != descriptorPosition && i != rootPosition) {
+          this.addEntity(node, files, usedFiles);
+        }
+      });
+    }
+    this.setUntrackedFiles(files, usedFiles);
+    this.crate.validate();
+    return this.crate;
+  }
+
+  private Crate readCrateLazy(String location) {
+    crate = new RoCrate();
+    DirectoryIndex files = this.indexContent(location);
+    HashSet<String> usedFiles = this.getDefaultUsedFiles(location);
+    LazyEntityIndex index;
+    try {
+      index = LazyEntityIndex.scan(
+          new File(this.reader.readContent(location), "ro-crate-metadata.json"));
+    } catch (IOException e) {
+      e.printStackTrace();
+      return this.crate;
+    }
+    this.crate.setMetadataContext(new RoCrateMetadataContext(index.getContext()));
+
+    List<ObjectNode> descriptors = new ArrayList<>();
+    for (String candidate : index.getDescriptorCandidates()) {
+      ObjectNode node = index.readNode(candidate);
+      if (node != null && isDescriptor(node)) {
+        descriptors.add(node);
+      }
+    }
+    RootEntities<ObjectNode> rootEntities = findRootEntities(descriptors, node -> node,
+        id -> index.contains(id) ? index.readNode(id) : null);
+    if (rootEntities == null) {
+      return this.crate;
+    }
+    this.setJsonDescriptor(rootEntities.descriptor);
+    index.remove(getId(rootEntities.descriptor));
+    if (rootEntities.root != null) {
+      this.setRootDataEntity(rootEntities.root);
+      index.remove(getId(rootEntities.root));
+      // the files of the data entities are known from the root without building them
+      for (String id : this.crate.getRootDataEntity().hasPart) {
+        File file = index.contains(id) ? files.resolve(id) : null;
+        if (file != null) {
+          usedFiles.add(file.getPath());
+        }
+      }
+    }
+    this.setUntrackedFiles(files, usedFiles);
+
+    RoCrate lazyCrate = this.crate;
+    StringPool stringPool = this.getStringPool();
+    // the used files are already known, the ones found while building are not needed
+    Set<String> lazyUsedFiles = new HashSet<>();
+    index.setBuilder(node -> this.buildEntity(lazyCrate, stringPool, node, files, lazyUsedFiles));
+    this.crate.setLazyEntitySource(index);
+    this.crate.validate();
+    return this.crate;
+  }
+
+  /**
+   * Parses the metadata json and calls the consumer for every node of the graph.
+   *
+   * @return the context of the metadata json.
+   */
+  private JsonNode streamGraph(String location, Consumer<ObjectNode> consumer) {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    JsonNode context = null;
+    try (InputStream inputStream = this.reader.openMetadataJson(location);
+         JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        System.err.println("The metadata json of the crate is not a json object.");
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if (field.equals("@graph") && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+              consumer.accept(objectMapper.readTree(parser));
+            } else {
+              parser.skipChildren();
+            }
           }
-          // data entity
-          DataEntity dataEntity = new DataEntity.DataEntityBuilder()
-              .setAll(node.deepCopy())
-              .setSource(loc)
-              .build();
-          this.crate.addDataEntity(dataEntity, false);
+        } else if (field.equals("@context")) {
+          context = objectMapper.readTree(parser);
         } else {
-          // contextual entity
-          this.crate.addContextualEntity(
-              new ContextualEntity.ContextualEntityBuilder().setAll(node.deepCopy()).build());
+          parser.skipChildren();
+        }
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+    return context;
+  }
+
+  private HashSet<String> getDefaultUsedFiles(String location) {
+    HashSet<String> usedFiles = new HashSet<>();
+    usedFiles.add(new File(location).toPath().resolve("ro-crate-metadata.json").toFile().getPath());
+    usedFiles.add(new File(location).toPath().resolve("ro-crate-preview.html").toFile().getPath());
+    usedFiles.add(new File(location).toPath().resolve("ro-crate-preview_files").toFile().getPath());
+    return usedFiles;
+  }
+
+  private void addEntity(ObjectNode node, DirectoryIndex files, Set<String> usedFiles) {
+    this.addBuiltEntity(
+        this.buildEntity(this.crate, this.getStringPool(), node, files, usedFiles));
+  }
+
+  private void addBuiltEntity(AbstractEntity entity) {
+    if (entity instanceof DataEntity) {
+      this.crate.addDataEntity((DataEntity) entity, false);
+    } else {
+      this.crate.addContextualEntity((ContextualEntity) entity);
+    }
+  }
+
+  // builds the entity of a node without adding it to the crate,
+  // it only reads the crate, so it is safe to call it from multiple threads
+  // the crate and the pool are passed in, since lazy crates build their entities
+  // after the reader may have moved on to another crate
+  private AbstractEntity buildEntity(RoCrate crate, StringPool stringPool, ObjectNode node,
+      DirectoryIndex files, Set<String> usedFiles) {
+    // if the id is in the root has part we should add this entity as data entity
+    if (crate.getRootDataEntity().hasInHasPart(node.get("@id").asText())) {
+      // data entity
+      DataEntity.DataEntityBuilder dataEntityBuilder = new DataEntity.DataEntityBuilder()
+          .setStringPool(stringPool)
+          .setAll(node);
+      if (this.reader instanceof ZipStreamReader) {
+        // the content stays in the archive until it is used
+        dataEntityBuilder.setEntrySource(
+            ((ZipStreamReader) this.reader).getEntrySource(node.get("@id").asText()));
+      } else {
+        File loc = files.resolve(node.get("@id").asText());
+        if (loc != null) {
+          usedFiles.add(loc.getPath());
         }
+        dataEntityBuilder.setSource(loc);
       }
+      return dataEntityBuilder.build();
     }
-    var itr = files.listFiles();
-    List<File> list = new ArrayList<>();
-    for (var f : itr) {
-      if (!usedFiles.contains(f.getPath())) {
-        list.add(f);
+    // contextual entity
+    return new ContextualEntity.ContextualEntityBuilder()
+        .setStringPool(stringPool)
+        .setAll(node)
+        .build();
+  }
+
+  /**
+   * Builds the entities of the graph and adds them to the crate in the graph order,
+   * in a single batch. With a pool the entities are built on it, otherwise the same task
+   * runs on the calling thread, so the two modes differ only in the building.
+   */
+  private void addEntities(ArrayNode graph, Set<Integer> rootEntities,
+      DirectoryIndex files, Set<String> usedFiles) {
+    Set<String> concurrentUsedFiles = ConcurrentHashMap.newKeySet();
+    MaterializationTask task = new MaterializationTask(graph, rootEntities, files,
+        concurrentUsedFiles, 0, graph.size());
+    List<AbstractEntity> entities = this.pool != null ? this.pool.invoke(task) : task.compute();
+    usedFiles.addAll(concurrentUsedFiles);
+    try (RoCrate.Batch batch = this.crate.startBatch()) {
+      for (AbstractEntity entity : entities) {
+        this.addBuiltEntity(entity);
       }
     }
-    this.crate.setUntrackedFiles(list);
-    Validator defaultValidation = new Validator(new JsonSchemaValidation());
-    defaultValidation.validate(this.crate);
-    return this.crate;
   }
 
-  private File checkFolderHasFile(String id, File file) {
-    Path path = file.toPath().resolve(id);
-    if (path.toFile().exists()) {
-      return path.toFile();
+  private class MaterializationTask extends RecursiveTask<List<AbstractEntity>> {
+
+    private final ArrayNode graph;
+    private final Set<Integer> rootEntities;
+    private final DirectoryIndex files;
+    private final Set<String> usedFiles;
+    private final int from;
+    private final int to;
+
+    MaterializationTask(ArrayNode graph, Set<Integer> rootEntities, DirectoryIndex files,
+        Set<String> usedFiles, int from, int to) {
+      this.graph = graph;
+      this.rootEntities = rootEntities;
+      this.files = files;
+      this.usedFiles = usedFiles;
+      this.from = from;
+      this.to = to;
     }
-    return null;
+
+    @Override
+    protected List<AbstractEntity> compute() {
+      if (this.to - this.from <= CHUNK_SIZE) {
+        List<AbstractEntity> entities = new ArrayList<>(this.to - this.from);
+        for (int i = this.from; i < this.to; i++) {
+          if (!this.rootEntities.contains(i)) {
+            entities.add(buildEntity(crate, getStringPool(),
+                (ObjectNode) this.graph.get(i), this.files, this.usedFiles));
+          }
+        }
+        return entities;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      MaterializationTask left = new MaterializationTask(this.graph, this.rootEntities,
+          this.files, this.usedFiles, this.from, middle);
+      MaterializationTask right = new MaterializationTask(this.graph, this.rootEntities,
+          this.files, this.usedFiles, middle, this.to);
+      if (!inForkJoinPool()) {
+        // without a pool both halves are built on the calling thread
+        List<AbstractEntity> entities = left.compute();
+        entities.addAll(right.compute());
+        return entities;
+      }
+      left.fork();
+      List<AbstractEntity> rightEntities = right.compute();
+      List<AbstractEntity> entities = left.join();
+      entities.addAll(rightEntities);
+      return entities;
+    }
+  }
+
+
+  private void setUntrackedFiles(DirectoryIndex files, Set<String> usedFiles) {
+    if (this.reader instanceof ZipStreamReader) {
+      this.crate.setUntrackedFiles(((ZipStreamReader) this.reader).getUntrackedFiles());
+    } else {
+      var itr = files.getTopLevelFiles();
+      List<File> list = new ArrayList<>();
+      for (var f : itr) {
+        if (!usedFiles.contains(f.getPath())) {
+          list.add(f);
+        }
+      }
+      this.crate.setUntrackedFiles(list);
+    }
+  }
+
+  private static String getId(JsonNode node) {
+    JsonNode id = node.get("@id");
+    return id == null ? "" : id.asText();
+  }
+
+  private static boolean isDescriptor(JsonNode node) {
+    JsonNode conformsTo = node.get("conformsTo");
+    if (conformsTo == null) {
+      return false;
+    }
+    for (JsonNode element : conformsTo.isArray() ? conformsTo : List.of(conformsTo)) {
+      JsonNode uri = element.get("@id");
+      if (uri != null && uri.asText().matches("https://w3id.org/ro/crate/.*")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String getAboutId(JsonNode descriptor) {
+    JsonNode about = descriptor.get("about");
+    if (about == null || about.get("@id") == null) {
+      return "";
+    }
+    return about.get("@id").asText();
+  }
+
+  private void setJsonDescriptor(ObjectNode node) {
+    this.crate.setJsonDescriptor(
+        new ContextualEntity.ContextualEntityBuilder()
+            .setStringPool(this.getStringPool())
+            .setAll(node)
+            .build());
+  }
+
+  private void setRootDataEntity(ObjectNode node) {
+    JsonNode hasPartNode = node.get("hasPart");
+    Set<String> hasPartSet = new HashSet<>();
+    if (hasPartNode != null) {
+      hasPartSet = JsonUtilFunctions.getIdPropertiesFromProperty(
+          hasPartNode, this.getStringPool());
+    }
+    node.remove("hasPart");
+    this.crate.setRootDataEntity(
+        new RootDataEntity.RootDataEntityBuilder()
+            .setStringPool(this.getStringPool())
+            .setAll(node)
+            .setHasPart(hasPartSet)
+            .build()
+    );
+  }
+
+  private DirectoryIndex indexContent(String location) {
+    File content = this.reader.readContent(location);
+    if (this.reader instanceof ZipStreamReader) {
+      // the content stays in the archive, it is not listed
+      return null;
+    }
+    return DirectoryIndex.build(content, this.parallelListing);
   }
 
   // gets the entities that every crate should have
   // we will need the root dataset to distinguish between data entities and contextual entities
-  private ArrayNode setRootEntities(ArrayNode graph) {
-
-    // for now, we make an empty ArrayNode and putt all the entities
-    // that still need to be processed there
-    var graphCopy = graph.deepCopy();
-    // use the algorithm described here: https://www.researchobject.org/ro-crate/1.1/root-data-entity.html#finding-the-root-data-entity
+  // use the algorithm described here: https://www.researchobject.org/ro-crate/1.1/root-data-entity.html#finding-the-root-data-entity
+  private Set<Integer> setRootEntities(ArrayNode graph) {
+    // the positions of the ids, only the first node with an id is kept
+    HashMap<String, Integer> positions = new HashMap<>();
+    List<Integer> descriptors = new ArrayList<>();
     for (int i = 0; i < graph.size(); i++) {
       JsonNode node = graph.get(i);
-      JsonNode type = node.get("conformsTo");
-      if (type != null) {
-        String uri = type.get("@id").asText();
-        if (uri.matches("https://w3id.org/ro/crate/.*")) {
-          this.crate.setJsonDescriptor(
-              new ContextualEntity.ContextualEntityBuilder().setAll(node.deepCopy()).build());
-          graphCopy.remove(i);
-          String id = node.get("about").get("@id").asText();
-          for (int j = 0; j < graphCopy.size(); j++) {
-            ObjectNode secondIteration = graphCopy.get(j).deepCopy();
-            if (secondIteration.get("@id").asText().equals(id)) {
-              // root data entity
-              JsonNode hasPartNode = secondIteration.get("hasPart");
-              Set<String> hasPartSet = new HashSet<>();
-              if (hasPartNode != null) {
-                if (hasPartNode.isArray()) {
-                  for (var e : hasPartNode) {
-                    hasPartSet.add(e.get("@id").asText());
-                  }
-                } else if (hasPartNode.isObject()) {
-                  hasPartSet.add(hasPartNode.get("@id").asText());
-                }
-              }
-              secondIteration.remove("hasPart");
-              this.crate.setRootDataEntity(
-                  new RootDataEntity.RootDataEntityBuilder()
-                      .setAll(secondIteration.deepCopy())
-                      .setHasPart(hasPartSet)
-                      .build()
-              );
-              graphCopy.remove(j);
-              break;
-            }
-          }
-        }
+      positions.putIfAbsent(getId(node), i);
+      if (isDescriptor(node)) {
+        descriptors.add(i);
+      }
+    }
+    Set<Integer> rootPositions = new HashSet<>();
+    RootEntities<Integer> rootEntities =
+        findRootEntities(descriptors, graph::get, positions::get);
+    if (rootEntities == null) {
+      return rootPositions;
+    }
+    this.setJsonDescriptor((ObjectNode) graph.get(rootEntities.descriptor));
+    rootPositions.add(rootEntities.descriptor);
+    if (rootEntities.root != null) {
+      this.setRootDataEntity((ObjectNode) graph.get(rootEntities.root));
+      rootPositions.add(rootEntities.root);
+    }
+    return rootPositions;
+  }
+
+  /**
+   * Picks the metadata descriptor and the root data entity of the graph.
+   * The first descriptor whose "about" is in the graph is used, together with the first node
+   * with that id. If no descriptor describes a node of the graph, the first descriptor is used
+   * without a root. All the read modes find the root entities this way.
+   *
+   * @param descriptors the descriptors in the order of the graph.
+   * @param nodes gives the json of a descriptor.
+   * @param firstWithId gives the first node of the graph with an id, or null if there is none.
+   * @return the descriptor and the root, or null if the graph has no descriptor.
+   */
+  private static <T> RootEntities<T> findRootEntities(List<T> descriptors,
+      Function<T, JsonNode> nodes, Function<String, T> firstWithId) {
+    if (descriptors.isEmpty()) {
+      System.err.println("The crate does not contain a metadata descriptor.");
+      return null;
+    }
+    for (T descriptor : descriptors) {
+      T root = firstWithId.apply(getAboutId(nodes.apply(descriptor)));
+      if (root != null) {
+        return new RootEntities<>(descriptor, root);
       }
     }
-    return graphCopy;
+    return new RootEntities<>(descriptors.get(0), null);
+  }
+
+  private static final class RootEntities<T> {
+
+    private final T descriptor;
+    private final T root;
+
+    RootEntities(T descriptor, T root) {
+      this.descriptor = descriptor;
+      this.root = root;
+    }
+  }
+
+  // a node of the graph, together with its position in the graph
+  private static final class GraphNode {
+
+    private final int position;
+    private final ObjectNode node;
+
+    GraphNode(int position, ObjectNode node) {
+      this.position = position;
+      this.node = node;
+    }
   }
 }
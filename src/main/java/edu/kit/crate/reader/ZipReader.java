@@ -4,7 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import net.lingala.zip4j.ZipFile;
 import org.apache.commons.io.FileUtils;
 
@@ -38,7 +40,7 @@ public class ZipReader implements ReaderStrategy {
     ObjectNode objectNode;
     File jsonMetadata = new File("temp/ro-crate-metadata.json");
     try {
-      objectNode = objectMapper.readTree(jsonMetadata).deepCopy();
+      objectNode = (ObjectNode) objectMapper.readTree(jsonMetadata);
       return objectNode;
     } catch (IOException e) {
       e.printStackTrace();
@@ -46,6 +48,14 @@ public class ZipReader implements ReaderStrategy {
     }
   }
 
+  @Override
+  public InputStream openMetadataJson(String location) throws IOException {
+    if (!read) {
+      this.readCrate(location);
+    }
+    return new FileInputStream("temp/ro-crate-metadata.json");
+  }
+
   @Override
   public File readContent(String location) {
     if (!read) {
@@ -0,0 +1,162 @@
+package edu.kit.crate.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.data.ZipEntrySource;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
+
+/**
+ * Implementation of the reader strategy that reads a crate from a zip archive in place.
+ * Only the central directory of the archive and the ro-crate-metadata.json entry are read,
+ * the data entities get sources that are inflated the first time they are used.
+ */
+public class ZipStreamReader implements ReaderStrategy {
+
+  private static final String METADATA = "ro-crate-metadata.json";
+  private static final String PREVIEW = "ro-crate-preview.html";
+  private static final String PREVIEW_FILES = "ro-crate-preview_files";
+
+  private String location;
+  private long lastModified;
+  private long length;
+  private ZipFile zipFile;
+  private TreeMap<String, FileHeader> entries;
+  private Set<String> usedEntries;
+
+  // the central directory is only read again if the archive is another one or has changed
+  private void openCrate(String location) {
+    File file = new File(location);
+    if (location.equals(this.location) && file.lastModified() == this.lastModified
+        && file.length() == this.length) {
+      return;
+    }
+    this.location = null;
+    this.zipFile = new ZipFile(location);
+    this.entries = new TreeMap<>();
+    try {
+      for (FileHeader header : this.zipFile.getFileHeaders()) {
+        this.entries.put(header.getFileName(), header);
+      }
+      this.location = location;
+      this.lastModified = file.lastModified();
+      this.length = file.length();
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  // every read of a crate starts with the metadata or the content,
+  // the entries used by the previous read are forgotten there
+  private void startRead(String location) {
+    this.openCrate(location);
+    this.usedEntries = new HashSet<>(List.of(METADATA, PREVIEW, PREVIEW_FILES));
+  }
+
+  @Override
+  public ObjectNode readMetadataJson(String location) {
+    this.startRead(location);
+    FileHeader header = this.entries.get(METADATA);
+    if (header == null) {
+      System.err.println("The zip archive does not contain a " + METADATA + " file.");
+      return null;
+    }
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    try (InputStream inputStream = this.zipFile.getInputStream(header)) {
+      return objectMapper.readValue(inputStream, ObjectNode.class);
+    } catch (IOException e) {
+      e.printStackTrace();
+      return null;
+    }
+  }
+
+  @Override
+  public InputStream openMetadataJson(String location) throws IOException {
+    this.openCrate(location);
+    FileHeader header = this.entries.get(METADATA);
+    if (header == null) {
+      throw new IOException("The zip archive does not contain a " + METADATA + " file.");
+    }
+    return this.zipFile.getInputStream(header);
+  }
+
+  @Override
+  public File readContent(String location) {
+    this.startRead(location);
+    return new File(location);
+  }
+
+  /**
+   * Finds the entries in the archive belonging to the id of a data entity.
+   * The id can be either a file or a folder in the archive.
+   *
+   * It is synchronized, since the entities can be read in parallel.
+   *
+   * @param id the id of the data entity.
+   * @return the lazy source of the entity or null if the archive does not contain it.
+   */
+  public synchronized ZipEntrySource getEntrySource(String id) {
+    ZipEntrySource entrySource = this.findEntrySource(id);
+    if (entrySource != null) {
+      String name = entrySource.getEntryName();
+      this.usedEntries.add(entrySource.isDirectory()
+          ? name.substring(0, name.length() - 1) : name);
+    }
+    return entrySource;
+  }
+
+  // looks up the entries of an id without marking them as used
+  private ZipEntrySource findEntrySource(String id) {
+    FileHeader header = this.entries.get(id);
+    if (header != null && !header.isDirectory()) {
+      return new ZipEntrySource(this.zipFile, id, List.of(header));
+    }
+    String prefix = id.endsWith("/") ? id : id + "/";
+    SortedMap<String, FileHeader> folder =
+        this.entries.subMap(prefix, prefix + Character.MAX_VALUE);
+    if (folder.isEmpty()) {
+      return null;
+    }
+    return new ZipEntrySource(this.zipFile, prefix, new ArrayList<>(folder.values()));
+  }
+
+  /**
+   * Returns the top level files and folders of the archive,
+   * that are not part of the metadata or of any data entity.
+   * Since they are not described anywhere they are extracted to a temporary location.
+   *
+   * @return the list of the extracted untracked files.
+   */
+  public List<File> getUntrackedFiles() {
+    Set<String> topLevel = new HashSet<>();
+    for (String name : this.entries.keySet()) {
+      int slash = name.indexOf('/');
+      topLevel.add(slash == -1 ? name : name.substring(0, slash));
+    }
+    List<File> untracked = new ArrayList<>();
+    for (String name : topLevel) {
+      if (!this.usedEntries.contains(name)) {
+        ZipEntrySource entrySource = this.findEntrySource(name);
+        try {
+          if (entrySource != null) {
+            untracked.add(entrySource.getFile());
+          }
+        } catch (IOException e) {
+          System.err.println("Cannot extract " + name + " from the zip archive.");
+          e.printStackTrace();
+        }
+      }
+    }
+    return untracked;
+  }
+}
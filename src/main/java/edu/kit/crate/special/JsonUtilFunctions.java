@@ -77,6 +77,39 @@ public class JsonUtilFunctions {
     }
   }
 
+  /**
+   * Removes the plain string values equal to one of the ids from the properties of an entity,
+   * both single values and elements of arrays. The id of the entity itself is kept.
+   *
+   * @param ids the values that should be removed.
+   * @param properties the properties of the entity.
+   * @return the keys of the properties that changed.
+   */
+  public static Set<String> removeValuesFrom(Set<String> ids, ObjectNode properties) {
+    Set<String> changed = new HashSet<>();
+    var itr = properties.fields();
+    while (itr.hasNext()) {
+      var nxt = itr.next();
+      JsonNode value = nxt.getValue();
+      if (nxt.getKey().equals("@id")) {
+        continue;
+      }
+      if (value.isTextual() && ids.contains(value.asText())) {
+        itr.remove();
+        changed.add(nxt.getKey());
+      } else if (value.isArray()) {
+        for (var elements = value.elements(); elements.hasNext(); ) {
+          JsonNode element = elements.next();
+          if (element.isTextual() && ids.contains(element.asText())) {
+            elements.remove();
+            changed.add(nxt.getKey());
+          }
+        }
+      }
+    }
+    return changed;
+  }
+
   /**
    * This method extracts from every property of a json objects its id's.
    * The method is intended for flattened json objects.
@@ -85,10 +118,22 @@ public class JsonUtilFunctions {
    * @return the set containing all the strings.
    */
   public static Set<String> getIdPropertiesFromJsonNode(JsonNode node) {
+    return getIdPropertiesFromJsonNode(node, null);
+  }
+
+  /**
+   * This method extracts from every property of a json objects its id's,
+   * taking the ids from the string pool of the crate.
+   *
+   * @param node The JsonNode json object.
+   * @param stringPool the string pool of the crate, or null.
+   * @return the set containing all the strings.
+   */
+  public static Set<String> getIdPropertiesFromJsonNode(JsonNode node, StringPool stringPool) {
     Set<String> set = new HashSet<>();
     var itr = node.fields();
     while (itr.hasNext()) {
-      set.addAll(getIdPropertiesFromProperty(itr.next().getValue()));
+      set.addAll(getIdPropertiesFromProperty(itr.next().getValue(), stringPool));
     }
     return set;
   }
@@ -102,22 +147,38 @@ public class JsonUtilFunctions {
    * @return Set containing all the id as string
    */
   public static Set<String> getIdPropertiesFromProperty(JsonNode node) {
+    return getIdPropertiesFromProperty(node, null);
+  }
+
+  /**
+   * Extracts the id from a JsonNode property.
+   * The returned ids are taken from the string pool, so they are shared within the crate.
+   *
+   * @param node the JsonNode property
+   * @param stringPool the string pool of the crate, or null
+   * @return Set containing all the id as string
+   */
+  public static Set<String> getIdPropertiesFromProperty(JsonNode node, StringPool stringPool) {
     Set<String> set = new HashSet<>();
     if (node.isArray()) {
       for (var element : node) {
         if (element.isObject()) {
           var id = element.get("@id");
           if (id != null) {
-            set.add(id.asText());
+            set.add(intern(id.asText(), stringPool));
           }
         }
       }
     } else if (node.isObject()) {
       var id = node.get("@id");
       if (id != null) {
-        set.add(id.asText());
+        set.add(intern(id.asText(), stringPool));
       }
     }
     return set;
   }
+
+  private static String intern(String value, StringPool stringPool) {
+    return stringPool == null ? value : stringPool.intern(value);
+  }
 }
@@ -0,0 +1,166 @@
+package edu.kit.crate.special;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pool of the strings used in a crate.
+ * Ids, types and references repeat a lot in big crates (ex. "File", license or author ids),
+ * with the pool every repeated value is stored in a single String and a single TextNode.
+ * The pool never shrinks, so only values that are expected to repeat should be put in it.
+ * Every distinct value costs a slot of the table next to its TextNode, so for crates
+ * where the values hardly repeat the pool uses more memory than it saves.
+ * The pool is safe to use from multiple threads.
+ */
+public class StringPool {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  // open addressing table of the pooled nodes, a node holds its string,
+  // so no separate map entries are needed
+  private TextNode[] table;
+  private int size;
+
+  public StringPool() {
+    this.table = new TextNode[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Returns the pooled instance of a string.
+   *
+   * @param value the string.
+   * @return an equal string, the same instance for all equal values.
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    return this.textNode(value).textValue();
+  }
+
+  /**
+   * Returns the pooled text node of a string.
+   * Text nodes are immutable, so they can be shared between entities.
+   *
+   * @param value the string.
+   * @return the text node, the same instance for all equal values.
+   */
+  public synchronized TextNode textNode(String value) {
+    if (value == null) {
+      return null;
+    }
+    int mask = this.table.length - 1;
+    int i = spread(value.hashCode()) & mask;
+    TextNode node;
+    while ((node = this.table[i]) != null) {
+      if (node.textValue().equals(value)) {
+        return node;
+      }
+      i = (i + 1) & mask;
+    }
+    node = new TextNode(value);
+    this.table[i] = node;
+    // the table is kept at most two thirds full
+    if (++this.size * 3 > this.table.length * 2) {
+      this.resize();
+    }
+    return node;
+  }
+
+  private void resize() {
+    TextNode[] old = this.table;
+    this.table = new TextNode[old.length * 2];
+    int mask = this.table.length - 1;
+    for (TextNode node : old) {
+      if (node != null) {
+        int i = spread(node.textValue().hashCode()) & mask;
+        while (this.table[i] != null) {
+          i = (i + 1) & mask;
+        }
+        this.table[i] = node;
+      }
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Replaces the text nodes in a json node with the pooled ones.
+   * Arrays and objects are changed in place.
+   *
+   * @param node the json node.
+   * @return the pooled text node if the node is textual, otherwise the same node.
+   */
+  public JsonNode internValues(JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isTextual()) {
+      return this.textNode(node.textValue());
+    }
+    if (node.isArray()) {
+      ArrayNode array = (ArrayNode) node;
+      for (int i = 0; i < array.size(); i++) {
+        array.set(i, this.internValues(array.get(i)));
+      }
+    } else if (node.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        field.setValue(this.internValues(field.getValue()));
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Replaces the "@id" and "@type" values in a json node with the pooled ones,
+   * also in the nested objects. All the other values are left as they are,
+   * since names, descriptions and the like are mostly unique.
+   * Objects and arrays are changed in place.
+   *
+   * @param node the json node.
+   * @return the same node.
+   */
+  public JsonNode internReferences(JsonNode node) {
+    if (node == null) {
+      return null;
+    }
+    if (node.isArray()) {
+      for (JsonNode element : node) {
+        this.internReferences(element);
+      }
+    } else if (node.isObject()) {
+      for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+        Map.Entry<String, JsonNode> field = it.next();
+        field.setValue(this.internReferences(field.getKey(), field.getValue()));
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Pools the value of a property, if it is an "@id" or an "@type"
+   * and the references nested in it otherwise.
+   *
+   * @param key the key of the property.
+   * @param value the value of the property.
+   * @return the value with the pooled references.
+   */
+  public JsonNode internReferences(String key, JsonNode value) {
+    if (key.equals("@id") || key.equals("@type")) {
+      return this.internValues(value);
+    }
+    return this.internReferences(value);
+  }
+
+  public synchronized int size() {
+    return this.size;
+  }
+}
@@ -0,0 +1,65 @@
+package edu.kit.crate.special;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Class with util functions used when writing files into a zip output stream.
+ */
+public class ZipStreamUtil {
+
+  /**
+   * Writes a single file as a new entry to the zip stream.
+   *
+   * @param file the file which content should be written.
+   * @param fileNameInZip the name of the entry in the zip archive.
+   * @param zipStream the stream where the entry is written.
+   * @throws IOException if the reading of the file or the writing to the stream fails.
+   */
+  public static void addFileToZipStream(File file, String fileNameInZip,
+      ZipOutputStream zipStream) throws IOException {
+    // the file is opened before the entry is started,
+    // so a missing file does not leave a broken entry in the stream
+    try (InputStream inputStream = FileUtils.openInputStream(file)) {
+      ZipParameters zipParameters = new ZipParameters();
+      zipParameters.setFileNameInZip(fileNameInZip);
+      zipParameters.setLastModifiedFileTime(file.lastModified());
+      zipStream.putNextEntry(zipParameters);
+      IOUtils.copy(inputStream, zipStream);
+      zipStream.closeEntry();
+    }
+  }
+
+  /**
+   * Writes a folder and everything in it recursively to the zip stream.
+   *
+   * @param folder the folder that should be written.
+   * @param folderNameInZip the name of the folder in the zip archive.
+   * @param zipStream the stream where the entries are written.
+   * @throws IOException if the reading of the files or the writing to the stream fails.
+   */
+  public static void addFolderToZipStream(File folder, String folderNameInZip,
+      ZipOutputStream zipStream) throws IOException {
+    String prefix = folderNameInZip.endsWith("/") ? folderNameInZip : folderNameInZip + "/";
+    ZipParameters zipParameters = new ZipParameters();
+    zipParameters.setFileNameInZip(prefix);
+    zipParameters.setLastModifiedFileTime(folder.lastModified());
+    zipStream.putNextEntry(zipParameters);
+    zipStream.closeEntry();
+    File[] children = folder.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        if (child.isDirectory()) {
+          addFolderToZipStream(child, prefix + child.getName(), zipStream);
+        } else {
+          addFileToZipStream(child, prefix + child.getName(), zipStream);
+        }
+      }
+    }
+  }
+}
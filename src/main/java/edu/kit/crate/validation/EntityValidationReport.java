@@ -0,0 +1,66 @@
+package edu.kit.crate.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The merged result of validating a number of entities one by one.
+ * It contains the ids of the entities that do not comply with the entity schema
+ * and of the ones that use terms missing from the crate context.
+ */
+public class EntityValidationReport {
+
+  private final Set<String> invalidEntities;
+  private final Set<String> entitiesMissingFromContext;
+  private int checkedEntities;
+
+  /**
+   * Constructs an empty report.
+   */
+  public EntityValidationReport() {
+    this.invalidEntities = new HashSet<>();
+    this.entitiesMissingFromContext = new HashSet<>();
+    this.checkedEntities = 0;
+  }
+
+  public void addCheckedEntity() {
+    this.checkedEntities++;
+  }
+
+  public void addInvalidEntity(String id) {
+    this.invalidEntities.add(id);
+  }
+
+  public void addEntityMissingFromContext(String id) {
+    this.entitiesMissingFromContext.add(id);
+  }
+
+  /**
+   * Adds the results of another report to this one.
+   *
+   * @param other the report that should be merged into this one.
+   * @return this report.
+   */
+  public EntityValidationReport merge(EntityValidationReport other) {
+    this.invalidEntities.addAll(other.invalidEntities);
+    this.entitiesMissingFromContext.addAll(other.entitiesMissingFromContext);
+    this.checkedEntities += other.checkedEntities;
+    return this;
+  }
+
+  public boolean isValid() {
+    return this.invalidEntities.isEmpty() && this.entitiesMissingFromContext.isEmpty();
+  }
+
+  public Set<String> getInvalidEntities() {
+    return invalidEntities;
+  }
+
+  public Set<String> getEntitiesMissingFromContext() {
+    return entitiesMissingFromContext;
+  }
+
+  public int getCheckedEntities() {
+    return checkedEntities;
+  }
+}
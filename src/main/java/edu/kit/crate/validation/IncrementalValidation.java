@@ -0,0 +1,147 @@
+package edu.kit.crate.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.validation.EntityValidation;
+import edu.kit.crate.entities.validation.FlattenedStructureValidation;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.payload.CratePayload;
+import edu.kit.crate.payload.Observer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Validation of a crate that keeps the validation state of every entity in the payload.
+ * It observes the payload, so on every validation only the entities that were added,
+ * changed or removed since the last one are checked again (plus the root and the descriptor).
+ * Payloads that do not notify about changes are checked completely every time.
+ * Entities whose live properties were handed out can be changed without a notification,
+ * so they are checked again on every validation.
+ * The check of a single entity is the same as the one the default crate schema
+ * does for every element of the graph.
+ */
+public class IncrementalValidation implements Observer {
+
+  private final CratePayload payload;
+  private final EntityValidation entityValidation;
+  private final Set<String> changedEntities;
+  private final Set<String> exposedEntities;
+  private final Set<String> invalidEntities;
+  private boolean validated;
+  private boolean observed;
+  private ParallelEntityValidation parallelValidation;
+
+  public IncrementalValidation(CratePayload payload) {
+    this(payload, new EntityValidation(new FlattenedStructureValidation()));
+  }
+
+  /**
+   * Constructor for the incremental validation of a payload.
+   *
+   * @param payload the payload that should be observed.
+   * @param entityValidation the validation used for a single entity.
+   */
+  public IncrementalValidation(CratePayload payload, EntityValidation entityValidation) {
+    this.payload = payload;
+    this.entityValidation = entityValidation;
+    this.changedEntities = new HashSet<>();
+    this.exposedEntities = new HashSet<>();
+    this.invalidEntities = new HashSet<>();
+    this.validated = false;
+    try {
+      payload.addObserver(this);
+      this.observed = true;
+    } catch (UnsupportedOperationException e) {
+      // without notifications every validation checks the whole payload
+      this.observed = false;
+    }
+  }
+
+  /**
+   * Sets the pool on which the changed entities are validated.
+   * If no pool is set the entities are validated on the calling thread.
+   *
+   * @param pool the pool to use, or null to validate on the calling thread.
+   */
+  public void setPool(ForkJoinPool pool) {
+    if (pool == null) {
+      this.parallelValidation = null;
+    } else {
+      this.parallelValidation = new ParallelEntityValidation(pool, this.entityValidation, null);
+    }
+  }
+
+  @Override
+  public void update(String entityId) {
+    this.changedEntities.add(entityId);
+  }
+
+  @Override
+  public void propertiesExposed(String entityId) {
+    this.exposedEntities.add(entityId);
+  }
+
+  /**
+   * Validates the crate, checking only the entities that changed since the last call.
+   * The first call checks every entity of the payload.
+   *
+   * @param rootDataEntity the root data entity of the crate, it is always checked.
+   * @param jsonDescriptor the metadata descriptor of the crate, it is always checked.
+   * @return if the whole crate is valid.
+   */
+  public boolean validate(AbstractEntity rootDataEntity, AbstractEntity jsonDescriptor) {
+    List<AbstractEntity> toCheck = new ArrayList<>();
+    if (!this.validated || !this.observed) {
+      this.invalidEntities.clear();
+      this.payload.forEachEntity(toCheck::add);
+      this.validated = true;
+    } else {
+      Set<String> ids = new HashSet<>(this.changedEntities);
+      ids.addAll(this.exposedEntities);
+      for (String id : ids) {
+        AbstractEntity entity = this.payload.getEntityById(id);
+        // removed entities are dropped, the others are checked again
+        this.invalidEntities.remove(id);
+        if (entity != null) {
+          toCheck.add(entity);
+        } else {
+          this.exposedEntities.remove(id);
+        }
+      }
+    }
+    if (this.parallelValidation != null) {
+      this.invalidEntities.addAll(
+          this.parallelValidation.validate(toCheck).getInvalidEntities());
+    } else {
+      for (AbstractEntity entity : toCheck) {
+        if (!this.isValid(entity)) {
+          this.invalidEntities.add(entity.getId());
+        }
+      }
+    }
+    this.changedEntities.clear();
+    boolean valid = this.isValid(rootDataEntity) & this.isValid(jsonDescriptor);
+    if (!this.invalidEntities.isEmpty()) {
+      System.err.println("This crate does not validate against the default schema."
+          + " The following entities are not valid:");
+      for (String id : this.invalidEntities) {
+        System.err.println(id);
+      }
+      return false;
+    }
+    return valid;
+  }
+
+  private boolean isValid(AbstractEntity entity) {
+    if (entity == null) {
+      return true;
+    }
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    return this.entityValidation.entityValidation(
+        objectMapper.convertValue(entity, ObjectNode.class));
+  }
+}
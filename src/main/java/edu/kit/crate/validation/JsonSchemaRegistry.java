@@ -0,0 +1,47 @@
+package edu.kit.crate.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A process-wide registry of compiled JSON-schemas.
+ * Every schema uri is compiled only once,
+ * afterwards all the validators share the same compiled instance.
+ */
+public class JsonSchemaRegistry {
+
+  private static final JsonSchemaFactory factory =
+      JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
+
+  private static final Map<URI, JsonSchema> schemasByUri = new ConcurrentHashMap<>();
+
+  private JsonSchemaRegistry() {
+  }
+
+  /**
+   * Returns the compiled schema located at the uri, compiling it on the first call.
+   *
+   * @param schemaUri the uri of the schema.
+   * @return the compiled schema.
+   */
+  public static JsonSchema getSchema(URI schemaUri) {
+    return schemasByUri.computeIfAbsent(schemaUri, factory::getSchema);
+  }
+
+  /**
+   * Compiles the schema of a json object.
+   * Schemas given as json objects are not cached, as looking them up would mean hashing
+   * and keeping their whole tree. The validators compile them once, when they are created.
+   *
+   * @param schema the json object of the schema.
+   * @return the compiled schema.
+   */
+  public static JsonSchema compile(JsonNode schema) {
+    return factory.getSchema(schema);
+  }
+}
@@ -1,15 +1,10 @@
 package edu.kit.crate.validation;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import edu.kit.crate.Crate;
-import edu.kit.crate.objectmapper.MyObjectMapper;
 import java.io.File;
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Objects;
@@ -24,8 +19,7 @@ public class JsonSchemaValidation implements ValidatorStrategy {
   private JsonSchema schema;
 
   private void getSchema(URI schemaUri) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.schema = factory.getSchema(schemaUri);
+    this.schema = JsonSchemaRegistry.getSchema(schemaUri);
   }
 
   /**
@@ -51,28 +45,23 @@ public class JsonSchemaValidation implements ValidatorStrategy {
   }
 
   public JsonSchemaValidation(JsonNode schema) {
-    JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V201909);
-    this.schema = factory.getSchema(schema);
+    this.schema = JsonSchemaRegistry.compile(schema);
   }
 
   @Override
   public boolean validate(Crate crate) {
-    ObjectMapper objectMapper = MyObjectMapper.getMapper();
-    try {
-      final JsonNode good = objectMapper.readTree(crate.getJsonMetadata());
-      Set<ValidationMessage> errors = this.schema.validate(good);
-      if (errors.size() == 0) {
-        return true;
-      } else {
-        System.err.println("This crate does not validate against the this schema."
-            + " If you haven't provided any schemas,"
-            + " then it does not validate against the default one.");
-        for (var e : errors) {
-          System.err.println(e.getMessage());
-        }
+    // the tree is built directly from the entities, no text serialization is needed
+    final JsonNode good = crate.getJsonMetadataNode();
+    Set<ValidationMessage> errors = this.schema.validate(good);
+    if (errors.size() == 0) {
+      return true;
+    } else {
+      System.err.println("This crate does not validate against the this schema."
+          + " If you haven't provided any schemas,"
+          + " then it does not validate against the default one.");
+      for (var e : errors) {
+        System.err.println(e.getMessage());
       }
-    } catch (IOException e) {
-      e.printStackTrace();
     }
     return false;
   }
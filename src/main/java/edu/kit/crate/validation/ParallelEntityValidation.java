@@ -0,0 +1,98 @@
+package edu.kit.crate.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.context.CrateMetadataContext;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.validation.EntityValidation;
+import edu.kit.crate.entities.validation.FlattenedStructureValidation;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Validates entities in parallel on a fork join pool.
+ * The checks of the single entities are independent of each other, so the list of entities
+ * is split in chunks that are validated on the pool and the reports of the chunks are merged.
+ * Every entity is checked against the entity schema and, if a context is given,
+ * for terms that are missing from the context.
+ */
+public class ParallelEntityValidation {
+
+  private static final int CHUNK_SIZE = 64;
+
+  private final ForkJoinPool pool;
+  private final EntityValidation entityValidation;
+  private final CrateMetadataContext metadataContext;
+
+  public ParallelEntityValidation(ForkJoinPool pool, CrateMetadataContext metadataContext) {
+    this(pool, new EntityValidation(new FlattenedStructureValidation()), metadataContext);
+  }
+
+  /**
+   * Constructor for the parallel validation.
+   *
+   * @param pool the pool on which the validation runs.
+   * @param entityValidation the validation used for a single entity.
+   * @param metadataContext the context the terms are checked against, null to skip this check.
+   */
+  public ParallelEntityValidation(ForkJoinPool pool, EntityValidation entityValidation,
+      CrateMetadataContext metadataContext) {
+    this.pool = pool;
+    this.entityValidation = entityValidation;
+    this.metadataContext = metadataContext;
+  }
+
+  /**
+   * Validates the entities on the pool of this validation.
+   *
+   * @param entities the entities that should be validated.
+   * @return the merged report of all entities.
+   */
+  public EntityValidationReport validate(List<? extends AbstractEntity> entities) {
+    return this.pool.invoke(new ValidationTask(entities, 0, entities.size()));
+  }
+
+  private void validateEntity(AbstractEntity entity, EntityValidationReport report) {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    report.addCheckedEntity();
+    if (!this.entityValidation.entityValidation(
+        objectMapper.convertValue(entity, ObjectNode.class))) {
+      report.addInvalidEntity(entity.getId());
+    }
+    if (this.metadataContext != null && !this.metadataContext.checkEntity(entity)) {
+      report.addEntityMissingFromContext(entity.getId());
+    }
+  }
+
+  private class ValidationTask extends RecursiveTask<EntityValidationReport> {
+
+    private final List<? extends AbstractEntity> entities;
+    private final int from;
+    private final int to;
+
+    ValidationTask(List<? extends AbstractEntity> entities, int from, int to) {
+      this.entities = entities;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected EntityValidationReport compute() {
+      if (this.to - this.from <= CHUNK_SIZE) {
+        EntityValidationReport report = new EntityValidationReport();
+        for (int i = this.from; i < this.to; i++) {
+          validateEntity(this.entities.get(i), report);
+        }
+        return report;
+      }
+      int middle = (this.from + this.to) >>> 1;
+      ValidationTask left = new ValidationTask(this.entities, this.from, middle);
+      left.fork();
+      EntityValidationReport right =
+          new ValidationTask(this.entities, middle, this.to).compute();
+      return left.join().merge(right);
+    }
+  }
+}
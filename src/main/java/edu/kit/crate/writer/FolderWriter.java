@@ -1,15 +1,10 @@
 package edu.kit.crate.writer;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.kit.crate.Crate;
 import edu.kit.crate.entities.data.DataEntity;
-import edu.kit.crate.objectmapper.MyObjectMapper;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -25,14 +20,10 @@ public class FolderWriter implements WriterStrategy {
     File file = new File(destination);
     try {
       FileUtils.forceMkdir(file);
-      ObjectMapper objectMapper = MyObjectMapper.getMapper();
-      JsonNode node = objectMapper.readTree(crate.getJsonMetadata());
-      String str = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
-      InputStream inputStream = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
-
       File json = new File(destination, "ro-crate-metadata.json");
-      FileUtils.copyInputStreamToFile(inputStream, json);
-      inputStream.close();
+      try (OutputStream outputStream = FileUtils.openOutputStream(json)) {
+        crate.writeJsonMetadata(outputStream);
+      }
       // save also the preview files to the crate destination
       if (crate.getPreview() != null) {
         crate.getPreview().saveAllToFolder(file);
@@ -48,7 +39,7 @@ public class FolderWriter implements WriterStrategy {
       System.out.println("Error creating destination directory!");
       e.printStackTrace();
     }
-    for (DataEntity dataEntity : crate.getAllDataEntities()) {
+    for (DataEntity dataEntity : crate.getDataEntitiesView()) {
       try {
         dataEntity.savetoFile(file);
       } catch (IOException e) {
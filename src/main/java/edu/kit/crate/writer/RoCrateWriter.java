@@ -1,8 +1,6 @@
 package edu.kit.crate.writer;
 
 import edu.kit.crate.Crate;
-import edu.kit.crate.validation.JsonSchemaValidation;
-import edu.kit.crate.validation.Validator;
 
 /**
  * The class used for writing (exporting) crates.
@@ -24,8 +22,7 @@ public class RoCrateWriter {
    * @param destination the location where the crate should be written.
    */
   public void save(Crate crate, String destination) {
-    Validator defaultValidation = new Validator(new JsonSchemaValidation());
-    defaultValidation.validate(crate);
+    crate.validate();
     this.writer.save(crate, destination);
   }
 }
@@ -0,0 +1,48 @@
+package edu.kit.crate.writer;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.entities.data.DataEntity;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import net.lingala.zip4j.model.ZipParameters;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Implementation of the writing strategy
+ * that writes the crate to a zip archive in a single sequential pass.
+ * In contrast to the ZipWriter the archive is never reopened,
+ * every entry is appended to one output stream and the central directory
+ * is written only once when the stream is closed.
+ */
+public class ZipStreamWriter implements WriterStrategy {
+
+  @Override
+  public void save(Crate crate, String destination) {
+    try (ZipOutputStream zipStream = new ZipOutputStream(
+        new BufferedOutputStream(FileUtils.openOutputStream(new File(destination))))) {
+      // write the ro-crate-metadata
+      ZipParameters zipParameters = new ZipParameters();
+      zipParameters.setFileNameInZip("ro-crate-metadata.json");
+      zipStream.putNextEntry(zipParameters);
+      crate.writeJsonMetadata(zipStream);
+      zipStream.closeEntry();
+      if (crate.getPreview() != null) {
+        crate.getPreview().saveAllToStream(crate, zipStream);
+      }
+      // save all the data entities
+      for (DataEntity dataEntity : crate.getDataEntitiesView()) {
+        try {
+          dataEntity.saveToStream(zipStream);
+        } catch (IOException e) {
+          System.out.println("could not save " + dataEntity.getId() + " to zip file!");
+          e.printStackTrace();
+        }
+      }
+    } catch (IOException e) {
+      System.out.println("Exception writing the crate to the zip stream");
+      e.printStackTrace();
+    }
+  }
+}
@@ -1,19 +1,15 @@
 package edu.kit.crate.writer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.kit.crate.Crate;
 import edu.kit.crate.entities.data.DataEntity;
-import edu.kit.crate.objectmapper.MyObjectMapper;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
 import net.lingala.zip4j.model.ZipParameters;
+import org.apache.commons.io.FileUtils;
 
 /**
  * Implementation of the writing strategy
@@ -23,25 +19,28 @@ public class ZipWriter implements WriterStrategy {
 
   @Override
   public void save(Crate crate, String destination) {
-    File file = new File(destination);
     ZipFile zipFile = new ZipFile(destination);
 
     try {
       // write the metadata.json file
       ZipParameters zipParameters = new ZipParameters();
       zipParameters.setFileNameInZip("ro-crate-metadata.json");
-      ObjectMapper objectMapper = MyObjectMapper.getMapper();
-      // we create an JsonNode only to have the file written pretty
-      JsonNode node = objectMapper.readTree(crate.getJsonMetadata());
-      String str = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(node);
-      InputStream inputStream = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
-      // write the ro-crate-metadata
-      zipFile.addStream(inputStream, zipParameters);
-      inputStream.close();
+      // zip4j can only add whole streams, so the metadata is streamed to a temporary file
+      // first, this way it is never completely held in memory
+      File metadata = Files.createTempFile("ro-crate-metadata", ".json").toFile();
+      try {
+        try (OutputStream outputStream = FileUtils.openOutputStream(metadata)) {
+          crate.writeJsonMetadata(outputStream);
+        }
+        // write the ro-crate-metadata
+        zipFile.addFile(metadata, zipParameters);
+      } finally {
+        FileUtils.deleteQuietly(metadata);
+      }
       if (crate.getPreview() != null) {
         crate.getPreview().saveAllToZip(zipFile);
       }
-    } catch (ZipException | JsonProcessingException e) {
+    } catch (ZipException e) {
       System.out.println("Exception writing ro-crate-metadata.json file to zip");
       e.printStackTrace();
     } catch (IOException e) {
@@ -49,7 +48,7 @@ public class ZipWriter implements WriterStrategy {
     }
 
     // save all the data entities
-    for (DataEntity dataEntity : crate.getAllDataEntities()) {
+    for (DataEntity dataEntity : crate.getDataEntitiesView()) {
       try {
         dataEntity.saveToZip(zipFile);
       } catch (ZipException e) {
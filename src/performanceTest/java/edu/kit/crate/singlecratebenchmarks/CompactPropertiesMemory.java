@@ -0,0 +1,80 @@
+package edu.kit.crate.singlecratebenchmarks;
+
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Memory footprint benchmark of the compact entity properties.
+ * Compares the heap used by a crate of similar File entities
+ * before and after moving their properties to the compact store.
+ */
+public class CompactPropertiesMemory {
+
+  /**
+   * Main class that is called when the benchmark should be started.
+   *
+   * @param args contain the amount of entities.
+   * @throws IOException when writing the results to a file fails.
+   */
+  public static void main(String[] args) throws IOException {
+    int numEntities = Integer.parseInt(args[0]);
+    memoryTest(numEntities);
+  }
+
+  /**
+   * The method that creates the benchmark.
+   *
+   * @param numEntities amount of entities in the benchmark.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void memoryTest(int numEntities) throws IOException {
+    long before = usedMemory();
+    RoCrate crate = createCrate(numEntities);
+    long regular = usedMemory() - before;
+    crate.compactEntities();
+    long compact = usedMemory() - before;
+
+    String result = numEntities + " " + regular / (1024 * 1024) + " " + compact / (1024 * 1024);
+    System.out.println("entities: " + numEntities
+        + ", regular: " + regular / (1024 * 1024) + " MB"
+        + ", compact: " + compact / (1024 * 1024) + " MB");
+    FileUtils.writeStringToFile(
+        new File("compact_memory_java.txt"), result + '\n', Charset.defaultCharset(), true);
+    // keep the crate reachable until the last measurement
+    System.out.println(crate.getAllDataEntities().size() + " data entities measured");
+  }
+
+  private static RoCrate createCrate(int numEntities) {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    crate.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#joe")
+        .addProperty("name", "Joe")
+        .build());
+    for (int i = 0; i < numEntities; i++) {
+      DataEntity file = new DataEntity.DataEntityBuilder()
+          .setId("https://example.com/data/file" + i + ".csv")
+          .addType("File")
+          .addProperty("encodingFormat", "text/csv")
+          .addProperty("license", "https://spdx.org/licenses/CC-BY-4.0")
+          .addProperty("contentSize", "1024")
+          .addProperty("dateModified", "2022-02-06")
+          .addIdProperty("author", "#joe")
+          .build();
+      crate.addDataEntity(file, false);
+    }
+    return crate;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -26,6 +28,7 @@ public class DeletionEntitiesPerformance {
     int times = Integer.parseInt(args[0]);
     String baseLocation = args[1];
     deletionEntitiesTest(times, baseLocation);
+    bulkDeletionEntitiesTest(times, baseLocation);
   }
 
   /**
@@ -38,19 +41,7 @@ public class DeletionEntitiesPerformance {
   public static void deletionEntitiesTest(int numEntities, String baseLocation) throws IOException {
 
     final Instant start = Instant.now();
-    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
-    for (int i = 0; i < numEntities; i++) {
-      PersonEntity person = new PersonEntity.PersonEntityBuilder()
-          .setId("#id" + i)
-          .addProperty("name", "Joe")
-          .build();
-      DataEntity file = new DataEntity.DataEntityBuilder()
-          .setSource(new File(baseLocation + "file" + i))
-          .addType("File")
-          .addIdProperty("author", person)
-          .build();
-      crate.addDataEntity(file, true);
-    }
+    RoCrate crate = createCrate(numEntities, baseLocation);
 
     for (int i = 0; i < numEntities; i++) {
       crate.deleteEntityById("#id" + i);
@@ -65,4 +56,49 @@ public class DeletionEntitiesPerformance {
     FileUtils.writeStringToFile(
         new File("deletion_java.txt"), duration + '\n', Charset.defaultCharset(), true);
   }
+
+  /**
+   * The same benchmark as the deletion one, but all the entities are removed
+   * with one call of deleteEntitiesByIds.
+   *
+   * @param numEntities amount of entities in the benchmark.
+   * @param baseLocation the base location of the data files.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void bulkDeletionEntitiesTest(int numEntities, String baseLocation)
+      throws IOException {
+
+    final Instant start = Instant.now();
+    RoCrate crate = createCrate(numEntities, baseLocation);
+
+    Set<String> ids = new HashSet<>();
+    for (int i = 0; i < numEntities; i++) {
+      ids.add("#id" + i);
+      ids.add("file" + i);
+    }
+    crate.deleteEntitiesByIds(ids);
+
+    Instant end = Instant.now();
+    String duration = String.valueOf(Duration.between(start, end).toMillis() / 1000.f);
+    System.out.println("everything deleted in bulk in: " + duration + " seconds");
+    FileUtils.writeStringToFile(
+        new File("bulk_deletion_java.txt"), duration + '\n', Charset.defaultCharset(), true);
+  }
+
+  private static RoCrate createCrate(int numEntities, String baseLocation) {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    for (int i = 0; i < numEntities; i++) {
+      PersonEntity person = new PersonEntity.PersonEntityBuilder()
+          .setId("#id" + i)
+          .addProperty("name", "Joe")
+          .build();
+      DataEntity file = new DataEntity.DataEntityBuilder()
+          .setSource(new File(baseLocation + "file" + i))
+          .addType("File")
+          .addIdProperty("author", person)
+          .build();
+      crate.addDataEntity(file, true);
+    }
+    return crate;
+  }
 }
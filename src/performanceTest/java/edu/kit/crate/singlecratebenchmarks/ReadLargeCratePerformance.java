@@ -0,0 +1,160 @@
+package edu.kit.crate.singlecratebenchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import edu.kit.crate.Crate;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.reader.FolderReader;
+import edu.kit.crate.reader.RoCrateReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ForkJoinPool;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Reading of a crate with a very big graph performance Benchmark.
+ * The descriptor and the root are written at the end of the graph,
+ * which is the worst case for finding them.
+ */
+public class ReadLargeCratePerformance {
+
+  /**
+   * Main class that is called when the benchmark should be started.
+   *
+   * @param args contain the amount of entities in the graph.
+   * @throws IOException when writing the crate or the results to a file fails.
+   */
+  public static void main(String[] args) throws IOException {
+    int numEntities = Integer.parseInt(args[0]);
+    Path crate = Files.createTempDirectory("large-crate");
+    writeMetadata(crate.resolve("ro-crate-metadata.json").toFile(), numEntities);
+    ForkJoinPool pool = new ForkJoinPool();
+    // the first reads also pay for the class loading and the compilation of the reader,
+    // which would otherwise be counted for the mode that is measured first
+    for (ForkJoinPool warmUp : new ForkJoinPool[] {null, pool}) {
+      RoCrateReader reader = new RoCrateReader(new FolderReader());
+      reader.setMaterializationPool(warmUp);
+      reader.readCrate(crate.toString());
+    }
+    readTest(crate.toString(), numEntities, false, null);
+    readTest(crate.toString(), numEntities, true, null);
+    readTest(crate.toString(), numEntities, false, pool);
+    pool.shutdown();
+    lazyOpenTest(crate.toString(), numEntities);
+    FileUtils.deleteDirectory(crate.toFile());
+  }
+
+  /**
+   * The method that creates the benchmark.
+   *
+   * @param location the location of the crate.
+   * @param numEntities amount of entities in the crate.
+   * @param streaming if the crate should be read in streaming mode.
+   * @param pool the pool to build the entities on, or null to build them sequentially.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void readTest(String location, int numEntities, boolean streaming,
+      ForkJoinPool pool) throws IOException {
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setStreaming(streaming);
+    reader.setMaterializationPool(pool);
+
+    final Instant start = Instant.now();
+    Crate crate = reader.readCrate(location);
+    Instant end = Instant.now();
+
+    String duration = String.valueOf(Duration.between(start, end).toMillis() / 1000.f);
+    String mode = streaming ? "streaming" : pool != null ? "parallel" : "";
+    // the gain of the parallel mode depends on the cores, so they are part of the result
+    String threads = pool != null ? " on " + pool.getParallelism() + " threads" : "";
+    System.out.println(crate.getAllDataEntities().size() + " of " + numEntities
+        + " entities read " + (mode.isEmpty() ? "" : mode + " ") + "in: " + duration + " seconds"
+        + threads);
+    FileUtils.writeStringToFile(
+        new File(mode.isEmpty() ? "read_java.txt" : "read_" + mode + "_java.txt"),
+        duration + '\n', Charset.defaultCharset(), true);
+  }
+
+  /**
+   * Opens the crate lazily and looks up one entity of it.
+   *
+   * @param location the location of the crate.
+   * @param numEntities amount of entities in the crate.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void lazyOpenTest(String location, int numEntities) throws IOException {
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setLazy(true);
+
+    final Instant start = Instant.now();
+    Crate crate = reader.readCrate(location);
+    Instant opened = Instant.now();
+    crate.getDataEntityById("https://example.com/file" + numEntities / 2);
+    Instant end = Instant.now();
+
+    String duration = String.valueOf(Duration.between(start, opened).toMillis() / 1000.f);
+    String lookup = String.valueOf(Duration.between(opened, end).toNanos() / 1000);
+    System.out.println(numEntities + " entities opened lazily in: " + duration
+        + " seconds, first lookup in: " + lookup + " microseconds");
+    FileUtils.writeStringToFile(new File("read_lazy_java.txt"),
+        duration + '\n', Charset.defaultCharset(), true);
+  }
+
+  private static void writeMetadata(File file, int numEntities) throws IOException {
+    try (JsonGenerator generator = MyObjectMapper.getMapper().getFactory()
+        .createGenerator(file, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      generator.writeStringField("@context", "https://w3id.org/ro/crate/1.1/context");
+      generator.writeArrayFieldStart("@graph");
+      generator.writeStartObject();
+      generator.writeStringField("@id", "#joe");
+      generator.writeStringField("@type", "Person");
+      generator.writeStringField("name", "Joe");
+      generator.writeEndObject();
+      for (int i = 0; i < numEntities; i++) {
+        generator.writeStartObject();
+        generator.writeStringField("@id", "https://example.com/file" + i);
+        generator.writeStringField("@type", "File");
+        generator.writeStringField("name", "file " + i);
+        generator.writeObjectFieldStart("author");
+        generator.writeStringField("@id", "#joe");
+        generator.writeEndObject();
+        generator.writeEndObject();
+      }
+      generator.writeStartObject();
+      generator.writeStringField("@id", "./");
+      generator.writeStringField("@type", "Dataset");
+      generator.writeStringField("name", "large crate");
+      generator.writeStringField("description", "crate with a very big graph");
+      generator.writeStringField("datePublished", "2022-02-06");
+      generator.writeObjectFieldStart("license");
+      generator.writeStringField("@id", "https://spdx.org/licenses/MIT");
+      generator.writeEndObject();
+      generator.writeArrayFieldStart("hasPart");
+      for (int i = 0; i < numEntities; i++) {
+        generator.writeStartObject();
+        generator.writeStringField("@id", "https://example.com/file" + i);
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeStartObject();
+      generator.writeStringField("@id", "ro-crate-metadata.json");
+      generator.writeStringField("@type", "CreativeWork");
+      generator.writeObjectFieldStart("about");
+      generator.writeStringField("@id", "./");
+      generator.writeEndObject();
+      generator.writeObjectFieldStart("conformsTo");
+      generator.writeStringField("@id", "https://w3id.org/ro/crate/1.1");
+      generator.writeEndObject();
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
+}
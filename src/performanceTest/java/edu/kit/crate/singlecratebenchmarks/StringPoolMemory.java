@@ -0,0 +1,88 @@
+package edu.kit.crate.singlecratebenchmarks;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.reader.FolderReader;
+import edu.kit.crate.reader.RoCrateReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Benchmark of the heap saved by the string pool when reading crates.
+ * Every crate is read many times, once without and once with the string pool,
+ * and the heap used by the read crates is compared.
+ */
+public class StringPoolMemory {
+
+  /**
+   * Main class that is called when the benchmark should be started.
+   *
+   * @param args the amount of copies of each crate that are kept in memory,
+   *             followed by the crates, either a crate folder or a metadata json file
+   *             (ex. BiggerExample.json).
+   * @throws IOException when writing the results to a file fails.
+   */
+  public static void main(String[] args) throws IOException {
+    int copies = Integer.parseInt(args[0]);
+    for (int i = 1; i < args.length; i++) {
+      memoryTest(copies, args[i]);
+    }
+  }
+
+  /**
+   * The method that creates the benchmark.
+   *
+   * @param copies amount of copies of the crate kept in memory.
+   * @param location the crate folder or metadata json file.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void memoryTest(int copies, String location) throws IOException {
+    File crateFolder = new File(location);
+    if (crateFolder.isFile()) {
+      Path temp = Files.createTempDirectory("crate");
+      FileUtils.copyFile(crateFolder, temp.resolve("ro-crate-metadata.json").toFile());
+      crateFolder = temp.toFile();
+    }
+    // the first read also fills the process-wide caches (ex. the shared contexts),
+    // they must not be counted for the crates measured first
+    readCopies(1, crateFolder.getPath(), false);
+    readCopies(1, crateFolder.getPath(), true);
+    long regular = readCopies(copies, crateFolder.getPath(), false);
+    long pooled = readCopies(copies, crateFolder.getPath(), true);
+
+    String name = new File(location).getName();
+    String result = name + " " + copies + " " + regular / 1024 + " " + pooled / 1024;
+    System.out.println(name + " x" + copies + ", without pool: " + regular / 1024
+        + " KB, with pool: " + pooled / 1024 + " KB, saved: "
+        + (regular - pooled) * 100 / Math.max(regular, 1) + "%");
+    FileUtils.writeStringToFile(
+        new File("string_pool_memory_java.txt"), result + '\n', Charset.defaultCharset(), true);
+  }
+
+  private static long readCopies(int copies, String location, boolean internStrings) {
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setInternStrings(internStrings);
+    long before = usedMemory();
+    List<Crate> crates = new ArrayList<>();
+    for (int i = 0; i < copies; i++) {
+      crates.add(reader.readCrate(location));
+    }
+    long used = usedMemory() - before;
+    // keep the crates reachable until the measurement is done
+    System.out.println(crates.size() + " crates measured");
+    return used;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,86 @@
+package edu.kit.crate.singlecratebenchmarks;
+
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Allocation benchmark of reading the properties of typed entities.
+ * Measures the bytes allocated by the current thread per getProperties() call
+ * and for serializing the whole crate.
+ */
+public class TypePropertiesAllocation {
+
+  private static final int WARMUP_ROUNDS = 5;
+
+  /**
+   * Main class that is called when the benchmark should be started.
+   *
+   * @param args contain the amount of entities and the calls of getProperties per entity.
+   * @throws IOException when writing the results to a file fails.
+   */
+  public static void main(String[] args) throws IOException {
+    int numEntities = Integer.parseInt(args[0]);
+    int calls = Integer.parseInt(args[1]);
+    allocationTest(numEntities, calls);
+  }
+
+  /**
+   * The method that creates the benchmark.
+   *
+   * @param numEntities amount of entities in the benchmark.
+   * @param calls the calls of getProperties per entity.
+   * @throws IOException if writing of the results fails.
+   */
+  public static void allocationTest(int numEntities, int calls) throws IOException {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    for (int i = 0; i < numEntities; i++) {
+      crate.addDataEntity(new DataEntity.DataEntityBuilder()
+          .setId("https://example.com/file" + i)
+          .addType("File")
+          .addType("SoftwareSourceCode")
+          .addProperty("name", "file " + i)
+          .build(), false);
+    }
+
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sink += readProperties(crate, calls);
+      sink += crate.getJsonMetadata().length();
+    }
+    long start = allocatedBytes();
+    sink += readProperties(crate, calls);
+    long perCall = (allocatedBytes() - start) / ((long) numEntities * calls);
+
+    start = allocatedBytes();
+    sink += crate.getJsonMetadata().length();
+    long serialization = allocatedBytes() - start;
+
+    String result = numEntities + " " + perCall + " " + serialization / 1024;
+    System.out.println("getProperties(): " + perCall + " bytes per call, serialization: "
+        + serialization / 1024 + " KB (" + sink + ")");
+    FileUtils.writeStringToFile(
+        new File("type_properties_allocation_java.txt"), result + '\n',
+        Charset.defaultCharset(), true);
+  }
+
+  private static long readProperties(RoCrate crate, int calls) {
+    long sink = 0;
+    for (AbstractEntity entity : crate.getDataEntitiesView()) {
+      for (int i = 0; i < calls; i++) {
+        sink += entity.getProperties().size();
+      }
+    }
+    return sink;
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -118,4 +118,19 @@ public class ContextTest {
     // house is in the context
     assertTrue(newContext.checkEntity(data));
   }
+
+  @Test
+  void customTermsDoNotLeakBetweenContexts() {
+    RoCrateMetadataContext other = new RoCrateMetadataContext();
+    this.context.addToContext("house", "www.example.con/house");
+
+    var data = new DataEntity.DataEntityBuilder()
+        .addType("house")
+        .setId("https://www.example.com/entity")
+        .build();
+    // both contexts share the default terms, but only the first one knows the custom one
+    assertTrue(this.context.checkEntity(data));
+    assertFalse(other.checkEntity(data));
+    assertFalse(new RoCrateMetadataContext().checkEntity(data));
+  }
 }
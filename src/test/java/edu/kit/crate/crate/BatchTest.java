@@ -0,0 +1,68 @@
+package edu.kit.crate.crate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import edu.kit.crate.HelpFunctions;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.FileEntity;
+import org.junit.jupiter.api.Test;
+
+class BatchTest {
+
+  private static void addEntities(RoCrate crate) {
+    for (int i = 0; i < 50; i++) {
+      PersonEntity person = new PersonEntity.PersonEntityBuilder()
+          .setId("#person" + i)
+          .addProperty("name", "Joe")
+          .build();
+      FileEntity file = new FileEntity.FileEntityBuilder()
+          .setId("file" + i + ".txt")
+          .build();
+      crate.addContextualEntity(person);
+      crate.addDataEntity(file, true);
+      file.addIdProperty("author", person.getId());
+      file.addProperty("description", "file number " + i);
+      crate.getRootDataEntity().addIdProperty("mentions", person.getId());
+    }
+  }
+
+  @Test
+  void testBatchGivesSameCrate() throws JsonProcessingException {
+    RoCrate batched = new RoCrate.RoCrateBuilder("name", "description").build();
+    try (RoCrate.Batch batch = batched.startBatch()) {
+      addEntities(batched);
+      assertTrue(batch.commit());
+    }
+    RoCrate direct = new RoCrate.RoCrateBuilder("name", "description").build();
+    addEntities(direct);
+    HelpFunctions.compareTwoCrateJson(batched, direct);
+
+    // the references were indexed at commit
+    for (int i = 0; i < 50; i += 2) {
+      batched.deleteEntityById("#person" + i);
+      direct.deleteEntityById("#person" + i);
+    }
+    HelpFunctions.compareTwoCrateJson(batched, direct);
+  }
+
+  @Test
+  void testDeleteInsideBatch() throws JsonProcessingException {
+    RoCrate batched = new RoCrate.RoCrateBuilder("name", "description").build();
+    try (RoCrate.Batch outer = batched.startBatch()) {
+      addEntities(batched);
+      try (RoCrate.Batch inner = batched.startBatch()) {
+        batched.deleteEntityById("#person1");
+        batched.deleteEntityById("file2.txt");
+      }
+    }
+    RoCrate direct = new RoCrate.RoCrateBuilder("name", "description").build();
+    addEntities(direct);
+    direct.deleteEntityById("#person1");
+    direct.deleteEntityById("file2.txt");
+    HelpFunctions.compareTwoCrateJson(batched, direct);
+    assertEquals(49, batched.getAllDataEntities().size());
+  }
+}
@@ -8,6 +8,10 @@ import edu.kit.crate.entities.contextual.PlaceEntity;
 import edu.kit.crate.entities.data.DataSetEntity;
 import edu.kit.crate.entities.data.FileEntity;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
@@ -261,4 +265,32 @@ public class SerializationTest {
 
     HelpFunctions.compareCrateJsonToFileInResources(roCrate, "/json/crate/BiggerExample.json");
   }
+
+  @Test
+  void streamedMetadataEqualsJsonMetadata(@TempDir Path temp) throws IOException {
+    Path txt = temp.resolve("data1.txt");
+    FileUtils.writeStringToFile(txt.toFile(), "fkdjaflkjfla", Charset.defaultCharset());
+    PersonEntity person = new PersonEntity.PersonEntityBuilder()
+        .setId("#alice")
+        .addProperty("name", "Alice")
+        .build();
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity")
+        .addValuePairToContext("@test", "ww.test")
+        .addContextualEntity(person)
+        .addDataEntity(
+            new FileEntity.FileEntityBuilder()
+                .setSource(txt.toFile())
+                .addAuthor(person.getId())
+                .build()
+        )
+        .build();
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    roCrate.writeJsonMetadata(outputStream);
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    JsonNode streamed = objectMapper.readTree(outputStream.toByteArray());
+    JsonNode expected = objectMapper.readTree(roCrate.getJsonMetadata());
+    HelpFunctions.compare(expected, streamed, true);
+  }
 }
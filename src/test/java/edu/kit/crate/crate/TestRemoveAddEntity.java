@@ -11,6 +11,12 @@ import edu.kit.crate.HelpFunctions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class TestRemoveAddEntity {
   @Test
@@ -116,4 +122,104 @@ public class TestRemoveAddEntity {
 
     HelpFunctions.compareTwoCrateJson(roCrate, second2);
   }
+
+  @Test
+  void removeReferencesFromRootAndOtherEntities() throws JsonProcessingException {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity").build();
+    RoCrate expected = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity").build();
+    FileEntity file = new FileEntity.FileEntityBuilder()
+        .setId("data1.txt")
+        .build();
+    FileEntity expectedFile = new FileEntity.FileEntityBuilder()
+        .setId("data1.txt")
+        .build();
+    roCrate.addDataEntity(file, true);
+    expected.addDataEntity(expectedFile, true);
+    for (int i = 0; i < 10; i++) {
+      PersonEntity person = new PersonEntity.PersonEntityBuilder()
+          .setId("#person" + i)
+          .build();
+      roCrate.addContextualEntity(person);
+      roCrate.getRootDataEntity().addIdProperty("mentions", person.getId());
+      file.addIdProperty("author", person.getId());
+      if (i % 2 == 0) {
+        expected.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+            .setId("#person" + i)
+            .build());
+        expected.getRootDataEntity().addIdProperty("mentions", "#person" + i);
+        expectedFile.addIdProperty("author", "#person" + i);
+      }
+    }
+    for (int i = 1; i < 10; i += 2) {
+      roCrate.deleteEntityById("#person" + i);
+    }
+    HelpFunctions.compareTwoCrateJson(roCrate, expected);
+
+    roCrate.deleteEntityById("data1.txt");
+    expected.deleteEntityById("data1.txt");
+    HelpFunctions.compareTwoCrateJson(roCrate, expected);
+  }
+
+  @Test
+  void bulkRemoveEqualsSingleRemove() throws JsonProcessingException {
+    RoCrate single = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity").build();
+    RoCrate bulk = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity").build();
+    Set<String> tmpIds = new HashSet<>();
+    for (RoCrate crate : new RoCrate[] {single, bulk}) {
+      for (int i = 0; i < 20; i++) {
+        PersonEntity person = new PersonEntity.PersonEntityBuilder()
+            .setId((i % 2 == 0 ? "#tmp-" : "#person-") + i)
+            .build();
+        crate.addContextualEntity(person);
+        crate.addDataEntity(new FileEntity.FileEntityBuilder()
+            .setId("file" + i + ".txt")
+            .addAuthor(person.getId())
+            .build(), true);
+        crate.getRootDataEntity().addIdProperty("mentions", person.getId());
+        if (i % 2 == 0) {
+          tmpIds.add(person.getId());
+        }
+      }
+    }
+    tmpIds.add("file0.txt");
+    for (String id : tmpIds) {
+      single.deleteEntityById(id);
+    }
+    bulk.deleteEntitiesByIds(tmpIds);
+    HelpFunctions.compareTwoCrateJson(single, bulk);
+    for (String id : tmpIds) {
+      assertNull(bulk.getEntityById(id));
+    }
+  }
+
+  @Test
+  void removePlainStringValuesFromReferrers() {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity").build();
+    roCrate.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build());
+    roCrate.addDataEntity(new FileEntity.FileEntityBuilder()
+        .setId("referrer.txt")
+        .addAuthor("#person")
+        .addProperty("about", "#person")
+        .build(), true);
+    roCrate.addDataEntity(new FileEntity.FileEntityBuilder()
+        .setId("other.txt")
+        .addProperty("about", "#person")
+        .build(), true);
+    roCrate.getRootDataEntity().addProperty("mentions", "#person");
+
+    roCrate.deleteEntityById("#person");
+    var referrer = roCrate.getDataEntityById("referrer.txt");
+    assertNull(referrer.getProperty("about"));
+    assertFalse(referrer.readProperties().toString().contains("#person"));
+    assertNull(roCrate.getRootDataEntity().getProperty("mentions"));
+    // only the entities that reference the id are cleaned up, the others are not scanned
+    assertEquals("#person", roCrate.getDataEntityById("other.txt").getProperty("about").asText());
+  }
 }
@@ -0,0 +1,94 @@
+package edu.kit.crate.entities.compact;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.HelpFunctions;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.reader.FolderReader;
+import edu.kit.crate.reader.RoCrateReader;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class CompactPropertiesTest {
+
+  private static RoCrate createCrate() {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    crate.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#joe")
+        .addProperty("name", "Joe")
+        .build());
+    for (int i = 0; i < 10; i++) {
+      crate.addDataEntity(new DataEntity.DataEntityBuilder()
+          .setId("https://example.com/file" + i)
+          .addType("File")
+          .addProperty("license", "MIT")
+          .addIdProperty("author", "#joe")
+          .build(), true);
+    }
+    return crate;
+  }
+
+  @Test
+  void testCompactCrateStaysReadable() throws IOException {
+    RoCrate crate = createCrate();
+    RoCrate expected = createCrate();
+    crate.compactEntities();
+
+    DataEntity first = crate.getDataEntityById("https://example.com/file0");
+    DataEntity second = crate.getDataEntityById("https://example.com/file1");
+    assertTrue(first.isCompact());
+    assertEquals("https://example.com/file0", first.getId());
+    assertEquals("MIT", first.getProperty("license").asText());
+    assertNull(first.getProperty("name"));
+    assertSame(first.getProperty("license"), second.getProperty("license"));
+    assertEquals(first.getProperties(), expected.getDataEntityById("https://example.com/file0")
+        .getProperties());
+    HelpFunctions.compareTwoCrateJson(crate, expected);
+  }
+
+  @Test
+  void testChangesExpandTheEntity() throws IOException {
+    RoCrate crate = createCrate();
+    RoCrate expected = createCrate();
+    crate.compactEntities();
+
+    DataEntity entity = crate.getDataEntityById("https://example.com/file3");
+    entity.addProperty("name", "third");
+    assertFalse(entity.isCompact());
+    expected.getDataEntityById("https://example.com/file3").addProperty("name", "third");
+
+    // the referenced nodes stay the same, so deleting still removes the references
+    crate.deleteEntityById("#joe");
+    expected.deleteEntityById("#joe");
+    assertTrue(crate.getDataEntityById("https://example.com/file5").isCompact());
+    HelpFunctions.compareTwoCrateJson(crate, expected);
+  }
+
+  @Test
+  void testShapesAreShared() {
+    ShapeTable table = new ShapeTable();
+    RoCrate crate = createCrate();
+    for (DataEntity entity : crate.getDataEntitiesView()) {
+      entity.compact(table);
+    }
+    assertEquals(1, table.getShapeCount());
+  }
+
+  @Test
+  void testCompactReadCrate() throws IOException {
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    String location = CompactPropertiesTest.class
+        .getResource("/crates/workflowhub/workflow1").getPath();
+    Crate crate = reader.readCrate(location);
+    Crate expected = reader.readCrate(location);
+    crate.compactEntities();
+    HelpFunctions.compareTwoCrateJson(crate, expected);
+  }
+}
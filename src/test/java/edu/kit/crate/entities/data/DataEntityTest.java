@@ -9,12 +9,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URL;
+import java.util.Set;
 
 import edu.kit.crate.objectmapper.MyObjectMapper;
 import edu.kit.crate.HelpFunctions;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * @author Nikola Tzotchev on 4.2.2022 г.
@@ -115,4 +117,24 @@ public class DataEntityTest {
     assertEquals(outputStreamCaptor.toString().trim(), "");
     System.setOut(standardOut);
   }
+
+  @Test
+  void testTypesKeptInSync() {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    DataEntity file = new DataEntityBuilder()
+        .addType("File")
+        .setId("https://example.com/file.txt")
+        .build();
+    assertSame(file.getProperties().get("@type"), file.getProperties().get("@type"));
+
+    ObjectNode json = objectMapper.createObjectNode();
+    json.put("@id", "https://example.com/file.txt");
+    json.putArray("@type").add("File").add("SoftwareSourceCode");
+    file.setProperties(json);
+    assertEquals(Set.of("File", "SoftwareSourceCode"), file.getTypes());
+
+    file.addType("Dataset");
+    assertEquals(Set.of("File", "SoftwareSourceCode", "Dataset"), file.getTypes());
+    assertEquals(3, file.getProperty("@type").size());
+  }
 }
@@ -0,0 +1,137 @@
+package edu.kit.crate.entities.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential test of the hand coded validation against the default json schemas.
+ */
+class FlattenedStructureValidationTest {
+
+  private static final List<String> FIELDS = List.of(
+      "\"text\"", "1", "-2.5", "true", "false", "null",
+      "{}", "{\"@id\": \"#id\"}", "{\"@id\": 1}", "{\"@id\": null}", "{\"@id\": {}}",
+      "{\"@id\": \"#id\", \"name\": \"x\"}", "{\"name\": \"x\"}",
+      "[]", "[\"a\", \"b\"]", "[{\"@id\": \"#a\"}, \"b\"]", "[{}]", "[1]", "[true]", "[null]",
+      "[[\"a\"]]", "[{\"@id\": 2}]", "[{\"@id\": \"#a\", \"x\": 1}]", "[\"a\", 1]");
+
+  private static final List<String> CRATES = List.of(
+      "/json/crate/BiggerExample.json",
+      "/json/crate/fileAndDir.json",
+      "/json/crate/simple.json",
+      "/json/crate/simple2.json",
+      "/json/crate/twoFiles.json",
+      "/crates/workflowhub/workflow1/ro-crate-metadata.json",
+      "/crates/other/idrc_project/ro-crate-metadata.json");
+
+  private final EntityValidationStrategy schema = new JsonSchemaValidation();
+  private final EntityValidationStrategy flattened = new FlattenedStructureValidation();
+
+  private void assertSameField(JsonNode field) {
+    assertEquals(schema.validateFieldOfEntity(field), flattened.validateFieldOfEntity(field),
+        field.toString());
+  }
+
+  private void assertSameEntity(JsonNode entity) {
+    assertEquals(schema.validateEntity(entity), flattened.validateEntity(entity),
+        entity.toString());
+  }
+
+  @Test
+  void testFieldsAgainstSchema() throws IOException {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    for (String field : FIELDS) {
+      JsonNode node = objectMapper.readTree(field);
+      assertSameField(node);
+      ObjectNode entity = objectMapper.createObjectNode();
+      entity.put("@id", "#entity");
+      entity.set("field", node);
+      assertSameEntity(entity);
+    }
+  }
+
+  @Test
+  void testExpectedResults() throws IOException {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    assertTrue(flattened.validateFieldOfEntity(
+        objectMapper.readTree("[{\"@id\": \"#a\"}, \"b\"]")));
+    assertTrue(flattened.validateFieldOfEntity(objectMapper.readTree("{}")));
+    assertFalse(flattened.validateFieldOfEntity(objectMapper.readTree("[1]")));
+    assertFalse(flattened.validateFieldOfEntity(objectMapper.readTree("{\"name\": \"x\"}")));
+    assertFalse(flattened.validateEntity(objectMapper.readTree("[]")));
+  }
+
+  @Test
+  void testCrateEntitiesAgainstSchema() throws IOException {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    for (String crate : CRATES) {
+      try (InputStream inputStream = getClass().getResourceAsStream(crate)) {
+        JsonNode graph = objectMapper.readTree(inputStream).get("@graph");
+        for (JsonNode entity : graph) {
+          assertTrue(flattened.validateEntity(entity), entity.toString());
+          assertSameEntity(entity);
+          for (JsonNode field : entity) {
+            assertSameField(field);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void testRandomNodesAgainstSchema() {
+    Random random = new Random(42);
+    for (int i = 0; i < 2000; i++) {
+      JsonNode node = randomNode(random, 3);
+      assertSameField(node);
+      assertSameEntity(node);
+    }
+  }
+
+  private static JsonNode randomNode(Random random, int depth) {
+    ObjectMapper objectMapper = MyObjectMapper.getMapper();
+    int kind = random.nextInt(depth > 0 ? 8 : 5);
+    switch (kind) {
+      case 0:
+        return objectMapper.getNodeFactory().textNode("value" + random.nextInt(10));
+      case 1:
+        return objectMapper.getNodeFactory().numberNode(random.nextInt(100));
+      case 2:
+        return objectMapper.getNodeFactory().booleanNode(random.nextBoolean());
+      case 3:
+        return objectMapper.getNodeFactory().nullNode();
+      case 4:
+        return objectMapper.getNodeFactory().numberNode(random.nextDouble());
+      case 5:
+        ObjectNode id = objectMapper.createObjectNode();
+        id.set("@id", randomNode(random, depth - 1));
+        return id;
+      case 6:
+        ObjectNode object = objectMapper.createObjectNode();
+        int fields = random.nextInt(3);
+        for (int j = 0; j < fields; j++) {
+          object.set(random.nextBoolean() ? "@id" : "name" + j, randomNode(random, depth - 1));
+        }
+        return object;
+      default:
+        ArrayNode array = objectMapper.createArrayNode();
+        int elements = random.nextInt(4);
+        for (int j = 0; j < elements; j++) {
+          array.add(randomNode(random, depth - 1));
+        }
+        return array;
+    }
+  }
+}
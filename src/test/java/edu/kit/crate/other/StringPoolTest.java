@@ -0,0 +1,128 @@
+package edu.kit.crate.other;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.Crate;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import edu.kit.crate.reader.FolderReader;
+import edu.kit.crate.reader.RoCrateReader;
+import edu.kit.crate.special.JsonUtilFunctions;
+import edu.kit.crate.special.StringPool;
+import org.junit.jupiter.api.Test;
+
+public class StringPoolTest {
+
+  private static final String WORKFLOW_CRATE = "/crates/workflowhub/workflow1";
+
+  @Test
+  void testPoolValues() {
+    StringPool pool = new StringPool();
+    String first = pool.intern(new String("File"));
+    assertSame(first, pool.intern(new String("File")));
+    assertSame(pool.textNode("File"), pool.textNode(new String("File")));
+
+    ObjectNode node = MyObjectMapper.getMapper().createObjectNode();
+    node.put("license", new String("MIT"));
+    node.putArray("author").addObject().put("@id", new String("#joe"));
+    pool.internValues(node);
+    assertSame(pool.intern("MIT"), node.get("license").textValue());
+    assertSame(pool.intern("#joe"),
+        JsonUtilFunctions.getIdPropertiesFromJsonNode(node, pool).iterator().next());
+  }
+
+  @Test
+  void testPoolReferences() {
+    StringPool pool = new StringPool();
+    ObjectNode node = MyObjectMapper.getMapper().createObjectNode();
+    node.put("@type", new String("File"));
+    node.put("name", new String("unique name"));
+    node.putArray("author").addObject().put("@id", new String("#joe"));
+    pool.internReferences(node);
+    assertSame(pool.textNode("File"), node.get("@type"));
+    assertSame(pool.intern("#joe"), node.get("author").get(0).get("@id").textValue());
+    // values that are not references are not pooled
+    assertEquals(2, pool.size());
+  }
+
+  @Test
+  void testBuilderUsesPool() {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    DataEntity first = new DataEntity.DataEntityBuilder()
+        .setStringPool(crate.getStringPool())
+        .setId("https://example.com/a")
+        .addType(new String("File"))
+        .addProperty("license", new String("MIT"))
+        .addIdProperty("author", new String("#joe"))
+        .build();
+    DataEntity second = new DataEntity.DataEntityBuilder()
+        .setStringPool(crate.getStringPool())
+        .setId("https://example.com/b")
+        .addType(new String("File"))
+        .addProperty("license", new String("MIT"))
+        .addIdProperty("author", new String("#joe"))
+        .build();
+    assertNotSame(first.getProperty("license"), second.getProperty("license"));
+    assertSame(first.getTypes().iterator().next(), second.getTypes().iterator().next());
+    assertSame(first.getLinkedTo().iterator().next(), second.getLinkedTo().iterator().next());
+  }
+
+  @Test
+  void testBuilderPoolsKeysOfAllValues() {
+    StringPool pool = new StringPool();
+    DataEntity entity = new DataEntity.DataEntityBuilder()
+        .setStringPool(pool)
+        .setId("https://example.com/a")
+        .addProperty(new String("size"), 10)
+        .addProperty(new String("ratio"), 0.5)
+        .addProperty(new String("public"), true)
+        .build();
+    for (String key : new String[] {"size", "ratio", "public"}) {
+      String stored = null;
+      for (var it = entity.readProperties().fieldNames(); it.hasNext(); ) {
+        String name = it.next();
+        if (name.equals(key)) {
+          stored = name;
+        }
+      }
+      assertSame(pool.intern(key), stored);
+    }
+  }
+
+  @Test
+  void testPoolGrows() {
+    StringPool pool = new StringPool();
+    for (int i = 0; i < 1000; i++) {
+      pool.intern("value" + i);
+    }
+    assertEquals(1000, pool.size());
+    for (int i = 0; i < 1000; i++) {
+      assertSame(pool.intern("value" + i), pool.intern(new String("value" + i)));
+    }
+    assertEquals(1000, pool.size());
+  }
+
+  @Test
+  void testReaderUsesPool() {
+    String location = StringPoolTest.class.getResource(WORKFLOW_CRATE).getPath();
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setInternStrings(true);
+    Crate crate = reader.readCrate(location);
+    assertSame(crate.getEntityById("ro-crate-preview.html").getProperty("@type"),
+        crate.getEntityById("https://about.workflowhub.eu/Workflow-RO-Crate/")
+            .getProperty("@type"));
+    assertSame(crate.getStringPool().intern("#galaxy"),
+        crate.getEntityById("#galaxy").getId());
+
+    // the pool is off by default
+    Crate notPooled = new RoCrateReader(new FolderReader()).readCrate(location);
+    assertEquals(0, notPooled.getStringPool().size());
+    assertNotSame(notPooled.getEntityById("ro-crate-preview.html").getProperty("@type"),
+        notPooled.getEntityById("https://about.workflowhub.eu/Workflow-RO-Crate/")
+            .getProperty("@type"));
+  }
+}
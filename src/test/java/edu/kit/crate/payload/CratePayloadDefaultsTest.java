@@ -0,0 +1,140 @@
+package edu.kit.crate.payload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.contextual.ContextualEntity;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.validation.IncrementalValidation;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * A payload implemented outside of the library only has to provide the original methods.
+ */
+class CratePayloadDefaultsTest {
+
+  private CratePayload payload;
+
+  /**
+   * Implements only the methods that every payload has to provide.
+   */
+  private static class MinimalPayload implements CratePayload {
+
+    private final RoCratePayload entities = new RoCratePayload();
+
+    @Override
+    public DataEntity getDataEntityById(String id) {
+      return this.entities.getDataEntityById(id);
+    }
+
+    @Override
+    public ContextualEntity getContextualEntityById(String id) {
+      return this.entities.getContextualEntityById(id);
+    }
+
+    @Override
+    public AbstractEntity getEntityById(String id) {
+      return this.entities.getEntityById(id);
+    }
+
+    @Override
+    public void addDataEntity(DataEntity dataEntity) {
+      this.entities.addDataEntity(dataEntity);
+    }
+
+    @Override
+    public void addContextualEntity(ContextualEntity contextualEntity) {
+      this.entities.addContextualEntity(contextualEntity);
+    }
+
+    @Override
+    public void addEntity(AbstractEntity entity) {
+      this.entities.addEntity(entity);
+    }
+
+    @Override
+    public void addEntities(Collection<AbstractEntity> entity) {
+      this.entities.addEntities(entity);
+    }
+
+    @Override
+    public List<AbstractEntity> getAllEntities() {
+      return this.entities.getAllEntities();
+    }
+
+    @Override
+    public List<DataEntity> getAllDataEntities() {
+      return this.entities.getAllDataEntities();
+    }
+
+    @Override
+    public List<ContextualEntity> getAllContextualEntities() {
+      return this.entities.getAllContextualEntities();
+    }
+
+    @Override
+    public ArrayNode getEntitiesMetadata() {
+      return this.entities.getEntitiesMetadata();
+    }
+
+    @Override
+    public void removeEntityById(String id) {
+      this.entities.removeEntityById(id);
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    this.payload = new MinimalPayload();
+    this.payload.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build());
+    this.payload.addDataEntity(new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addType("File")
+        .addIdProperty("author", "#person")
+        .build());
+  }
+
+  @Test
+  void testDefaultReads() {
+    assertEquals(1, this.payload.getDataEntitiesView().size());
+    assertEquals(2, this.payload.streamAllEntities().count());
+    assertEquals(Set.of("file.txt"), Set.of(this.payload.getEntitiesByType("File").stream()
+        .map(AbstractEntity::getId).toArray()));
+    assertEquals(Set.of("#person"), this.payload.getReferencedIds("file.txt"));
+    assertEquals(2, this.payload.getGraph().getReachableIds("file.txt", EntityGraph.UNLIMITED).size());
+    assertNull(this.payload.getStringPool());
+    assertThrows(UnsupportedOperationException.class, () -> this.payload.query());
+  }
+
+  @Test
+  void testDefaultRemoval() {
+    this.payload.startBatch();
+    this.payload.removeEntitiesByIds(Set.of("#person", "file.txt"));
+    this.payload.endBatch();
+    assertTrue(this.payload.getAllEntities().isEmpty());
+  }
+
+  @Test
+  void testValidationWithoutNotifications() {
+    IncrementalValidation validation = new IncrementalValidation(this.payload);
+    assertTrue(validation.validate(null, null));
+    // the change is not notified, it is found as every validation checks the whole payload
+    ObjectNode nested = this.payload.getEntityById("file.txt").getProperties().putObject("knows");
+    nested.put("@id", "#other");
+    nested.put("name", "Other");
+    assertFalse(validation.validate(null, null));
+  }
+}
@@ -0,0 +1,89 @@
+package edu.kit.crate.payload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.contextual.ContextualEntity;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.entities.data.DataSetEntity;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntityGraphTest {
+
+  private RoCrate crate;
+
+  @BeforeEach
+  void setUp() {
+    this.crate = new RoCrate.RoCrateBuilder("name", "description").build();
+    this.crate.addContextualEntity(new ContextualEntity.ContextualEntityBuilder()
+        .setId("#org")
+        .addType("Organization")
+        .build());
+    this.crate.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .addIdProperty("affiliation", "#org")
+        .build());
+    this.crate.addDataEntity(new DataEntity.DataEntityBuilder()
+        .setId("data/file.txt")
+        .addType("File")
+        .addIdProperty("author", "#person")
+        .addIdProperty("license", "https://spdx.org/licenses/MIT")
+        .build(), false);
+    this.crate.addDataEntity(new DataSetEntity.DataSetBuilder()
+        .setId("data/")
+        .addToHasPart("data/file.txt")
+        .build(), true);
+  }
+
+  @Test
+  void testBreadthFirst() {
+    EntityGraph graph = this.crate.getGraph();
+    List<AbstractEntity> visited = graph.breadthFirst("./", EntityGraph.UNLIMITED);
+    assertEquals(List.of("./", "data/", "data/file.txt", "#person", "#org"),
+        visited.stream().map(AbstractEntity::getId).collect(Collectors.toList()));
+
+    assertEquals(Set.of("./", "data/", "data/file.txt"), graph.getReachableIds("./", 2));
+    assertEquals(Set.of("data/file.txt"), graph.getReachableIds("data/file.txt", 0));
+    assertTrue(graph.breadthFirst("missing", 3).isEmpty());
+  }
+
+  @Test
+  void testDepthFirst() {
+    EntityGraph graph = this.crate.getGraph();
+    List<AbstractEntity> visited = graph.depthFirst("ro-crate-metadata.json", EntityGraph.UNLIMITED);
+    assertEquals(6, visited.size());
+    assertEquals("ro-crate-metadata.json", visited.get(0).getId());
+    assertEquals(graph.getReachableIds("./", 3).size(), graph.depthFirst("./", 3).size());
+  }
+
+  @Test
+  void testDepthFirstRevisitsShorterPath() {
+    // "#org" is reached at depth 4 through "#person", and at depth 2 directly
+    this.crate.getDataEntityById("data/").addIdProperty("funder", "#org");
+    EntityGraph graph = this.crate.getGraph();
+    assertEquals(graph.getReachableIds("./", 2).size(), graph.depthFirst("./", 2).size());
+    assertTrue(graph.getReachableIds("./", 2).contains("#org"));
+  }
+
+  @Test
+  void testSubgraphFollowsChanges() {
+    EntityGraph graph = this.crate.getGraph();
+    Map<String, Set<String>> subgraph = graph.getReachableSubgraph("data/", EntityGraph.UNLIMITED);
+    assertEquals(Set.of("data/", "data/file.txt", "#person", "#org"), subgraph.keySet());
+    // external links are not part of the subgraph
+    assertEquals(Set.of("#person"), subgraph.get("data/file.txt"));
+
+    this.crate.deleteEntityById("#person");
+    subgraph = graph.getReachableSubgraph("data/", EntityGraph.UNLIMITED);
+    assertEquals(Set.of("data/", "data/file.txt"), subgraph.keySet());
+    assertEquals(Set.of(), subgraph.get("data/file.txt"));
+  }
+}
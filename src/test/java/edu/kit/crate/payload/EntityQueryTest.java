@@ -0,0 +1,120 @@
+package edu.kit.crate.payload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.entities.AbstractEntity;
+import edu.kit.crate.entities.contextual.PersonEntity;
+import edu.kit.crate.entities.data.DataEntity;
+import edu.kit.crate.reader.FolderReader;
+import edu.kit.crate.reader.RoCrateReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EntityQueryTest {
+
+  private RoCratePayload payload;
+
+  @BeforeEach
+  void setUp() {
+    this.payload = new RoCratePayload();
+    this.payload.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#orcid")
+        .build());
+    for (int i = 0; i < 20; i++) {
+      DataEntity.DataEntityBuilder builder = new DataEntity.DataEntityBuilder()
+          .setId("file" + i + ".txt")
+          .addProperty("license", i % 2 == 0 ? "MIT" : "Apache-2.0")
+          .addProperty("datePublished", String.format("2020-%02d-01", i % 12 + 1));
+      if (i % 5 == 0) {
+        builder.addIdProperty("author", "#orcid");
+      }
+      this.payload.addDataEntity(builder.build());
+    }
+  }
+
+  private static Set<String> ids(List<AbstractEntity> entities) {
+    Set<String> ids = new HashSet<>();
+    for (AbstractEntity entity : entities) {
+      ids.add(entity.getId());
+    }
+    return ids;
+  }
+
+  private Set<String> runQueries() {
+    Set<String> result = ids(this.payload.query()
+        .whereEquals("license", "MIT")
+        .whereEquals("author", "#orcid")
+        .execute());
+    assertEquals(10, this.payload.query().whereEquals("license", "MIT").execute().size());
+    assertEquals(Set.of("file2.txt", "file3.txt", "file14.txt", "file15.txt"),
+        ids(this.payload.query()
+            .whereBetween("datePublished", "2020-03-01", "2020-04-30")
+            .execute()));
+    return result;
+  }
+
+  @Test
+  void testQueriesWithAndWithoutIndexes() {
+    Set<String> scanned = this.runQueries();
+    assertEquals(Set.of("file0.txt", "file10.txt"), scanned);
+
+    this.payload.addHashIndex("license");
+    this.payload.addHashIndex("author");
+    this.payload.addSortedIndex("datePublished");
+    assertEquals(scanned, this.runQueries());
+  }
+
+  @Test
+  void testIndexesFollowChanges() {
+    this.payload.addHashIndex("license");
+    this.payload.addHashIndex("author");
+    this.payload.addSortedIndex("datePublished");
+
+    this.payload.getEntityById("file0.txt").addProperty("license", "GPL-3.0");
+    this.payload.getEntityById("file2.txt").addIdProperty("author", "#orcid");
+    assertEquals(Set.of("file2.txt", "file10.txt"), ids(this.payload.query()
+        .whereEquals("license", "MIT")
+        .whereEquals("author", "#orcid")
+        .execute()));
+    assertEquals(Set.of("file0.txt"),
+        ids(this.payload.query().whereEquals("license", "GPL-3.0").execute()));
+
+    this.payload.removeEntityById("#orcid");
+    assertTrue(this.payload.query().whereEquals("author", "#orcid").execute().isEmpty());
+    this.payload.removeEntityById("file1.txt");
+    assertEquals(9, this.payload.query().whereEquals("license", "Apache-2.0").execute().size());
+  }
+
+  @Test
+  void testPredicate() {
+    this.payload.addSortedIndex("datePublished");
+    assertEquals(Set.of("file11.txt"), ids(this.payload.query()
+        .whereBetween("datePublished", "2020-12-01", "2020-12-31")
+        .where("license", value -> value != null && value.asText().startsWith("Apache"))
+        .execute()));
+  }
+
+  @Test
+  void testQueryOnReadCrate() {
+    String location = EntityQueryTest.class.getResource("/crates/workflowhub/workflow1")
+        .getPath();
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setLazy(true);
+    Crate crate = reader.readCrate(location);
+    crate.addHashIndex("programmingLanguage");
+
+    List<AbstractEntity> res = crate.query()
+        .whereEquals("programmingLanguage", "#galaxy")
+        .execute();
+    assertEquals(Set.of("variation-reporting.ga"), ids(res));
+    // the root has the same name, but it is not part of the payload
+    assertEquals(1, crate.query()
+        .whereEquals("name", "sars-cov-2-variation-reporting/COVID-19-VARIATION-REPORTING")
+        .execute().size());
+  }
+}
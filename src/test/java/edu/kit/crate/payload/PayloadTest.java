@@ -5,11 +5,15 @@ import edu.kit.crate.entities.contextual.ContextualEntity;
 import edu.kit.crate.entities.contextual.PersonEntity;
 import edu.kit.crate.entities.data.DataEntity;
 import edu.kit.crate.entities.data.DataSetEntity;
+import edu.kit.crate.objectmapper.MyObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -169,4 +173,183 @@ public class PayloadTest {
     // when the first entity is deleted its occurrence in hasPart has to removed as well
     assertNull(setWithoutHasPart.getProperty("hasPart"));
   }
+
+  @Test
+  void testReferenceIndexFollowsPropertyChanges() {
+    var person = new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build();
+    var other = new PersonEntity.PersonEntityBuilder()
+        .setId("#other")
+        .build();
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addIdProperty("author", person)
+        .build();
+    this.payload.addContextualEntity(person);
+    this.payload.addContextualEntity(other);
+    this.payload.addDataEntity(file);
+    assertEquals(Set.of("file.txt"), this.payload.getReferrers("#person"));
+    assertEquals(Set.of("#person"), this.payload.getReferencedIds("file.txt"));
+
+    // replacing the value of the property drops the stale reference
+    file.addIdProperty("contributor", "#other");
+    file.addProperty("author", "unknown");
+    assertTrue(this.payload.getReferrers("#person").isEmpty());
+    assertEquals(Set.of("file.txt"), this.payload.getReferrers("#other"));
+
+    // the reference is kept as long as one property still points to the id
+    file.addIdProperty("author", "#other");
+    file.addProperty("contributor", "nobody");
+    assertEquals(Set.of("file.txt"), this.payload.getReferrers("#other"));
+
+    this.payload.removeEntityById("#other");
+    assertNull(file.getProperty("author").get("@id"));
+    assertTrue(this.payload.getReferencedIds("file.txt").isEmpty());
+
+    this.payload.removeEntityById("file.txt");
+    assertTrue(this.payload.getReferrers("#person").isEmpty());
+  }
+
+  @Test
+  void testReferenceIndexWithHasPart() {
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .build();
+    var set = new DataSetEntity.DataSetBuilder()
+        .setId("set/")
+        .build();
+    this.payload.addDataEntity(file);
+    this.payload.addDataEntity(set);
+    set.addToHasPart("file.txt");
+    assertEquals(Set.of("set/"), this.payload.getReferrers("file.txt"));
+
+    this.payload.removeEntityById("file.txt");
+    assertFalse(set.hasInHasPart("file.txt"));
+    assertTrue(this.payload.getReferrers("file.txt").isEmpty());
+  }
+
+  @Test
+  void testBatchNotifiesOncePerEntity() {
+    List<String> notified = new ArrayList<>();
+    this.payload.addObserver(notified::add);
+    var person = new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build();
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .build();
+
+    this.payload.startBatch();
+    this.payload.addContextualEntity(person);
+    this.payload.addDataEntity(file);
+    for (int i = 0; i < 10; i++) {
+      file.addProperty("name" + i, "value");
+    }
+    file.addIdProperty("author", "#person");
+    assertTrue(notified.isEmpty());
+    // queries see the changes of the batch
+    assertEquals(Set.of("file.txt"), this.payload.getReferrers("#person"));
+    this.payload.endBatch();
+
+    assertEquals(List.of("#person", "file.txt"), notified);
+    this.payload.removeEntityById("#person");
+    assertTrue(this.payload.getReferencedIds("file.txt").isEmpty());
+  }
+
+  @Test
+  void testNestedBatchesEndWithTheOutermost() {
+    List<String> notified = new ArrayList<>();
+    this.payload.addObserver(notified::add);
+
+    this.payload.startBatch();
+    this.payload.startBatch();
+    this.payload.addDataEntity(new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .build());
+    this.payload.endBatch();
+    assertTrue(notified.isEmpty());
+    this.payload.endBatch();
+    assertEquals(List.of("file.txt"), notified);
+  }
+
+  @Test
+  void testEntityViews() {
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .build();
+    var person = new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build();
+    var dataView = this.payload.getDataEntitiesView();
+    var allView = this.payload.getAllEntitiesView();
+    this.payload.addDataEntity(file);
+    this.payload.addContextualEntity(person);
+
+    // the views follow the payload
+    assertEquals(1, dataView.size());
+    assertEquals(1, this.payload.getContextualEntitiesView().size());
+    Set<String> ids = new HashSet<>();
+    for (AbstractEntity entity : allView) {
+      ids.add(entity.getId());
+    }
+    assertEquals(Set.of("file.txt", "#person"), ids);
+    assertEquals(2, this.payload.streamAllEntities().count());
+    List<AbstractEntity> visited = new ArrayList<>();
+    this.payload.forEachEntity(visited::add);
+    assertEquals(2, visited.size());
+    assertThrows(UnsupportedOperationException.class, dataView::clear);
+
+    this.payload.removeEntityById("file.txt");
+    assertTrue(dataView.isEmpty());
+  }
+
+  @Test
+  void testTypeIndex() {
+    var person = new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build();
+    var file = new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addType("File")
+        .build();
+    var fromJson = new ContextualEntity.ContextualEntityBuilder()
+        .setAll(MyObjectMapper.getMapper().createObjectNode()
+            .put("@id", "#json")
+            .put("@type", "Person"))
+        .build();
+    this.payload.addContextualEntity(person);
+    this.payload.addContextualEntity(fromJson);
+    this.payload.addDataEntity(file);
+    assertEquals(2, this.payload.getEntitiesByType("Person").size());
+    assertEquals(1, this.payload.getEntitiesByType("File").size());
+    assertTrue(this.payload.getEntitiesByType("SoftwareSourceCode").isEmpty());
+
+    file.addType("SoftwareSourceCode");
+    assertEquals(Set.of(file), new HashSet<>(this.payload.getEntitiesByType("SoftwareSourceCode")));
+
+    this.payload.removeEntityById("#person");
+    assertEquals(Set.of(fromJson), new HashSet<>(this.payload.getEntitiesByType("Person")));
+    this.payload.removeEntityById("file.txt");
+    assertTrue(this.payload.getEntitiesByType("File").isEmpty());
+  }
+
+  @Test
+  void testRemovedReferencesAreReportedOncePerReferrer() {
+    this.payload.addContextualEntity(new PersonEntity.PersonEntityBuilder()
+        .setId("#person")
+        .build());
+    this.payload.addDataEntity(new DataEntity.DataEntityBuilder()
+        .setId("file.txt")
+        .addIdProperty("author", "#person")
+        .addIdProperty("contributor", "#person")
+        .build());
+    this.payload.addHashIndex("author");
+    List<String> updates = new ArrayList<>();
+    this.payload.addObserver(updates::add);
+
+    this.payload.removeEntityById("#person");
+    assertEquals(List.of("file.txt", "#person"), updates);
+    assertTrue(this.payload.query().whereEquals("author", "#person").execute().isEmpty());
+  }
 }
@@ -0,0 +1,85 @@
+package edu.kit.crate.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.HelpFunctions;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryIndexTest {
+
+  @Test
+  void testResolve(@TempDir Path temp) throws IOException {
+    FileUtils.writeStringToFile(temp.resolve("data/nested/a.txt").toFile(), "a",
+        Charset.defaultCharset());
+    FileUtils.writeStringToFile(temp.resolve("b.txt").toFile(), "b", Charset.defaultCharset());
+
+    for (boolean parallel : new boolean[] {false, true}) {
+      DirectoryIndex index = DirectoryIndex.build(temp.toFile(), parallel);
+      assertEquals(temp.resolve("data/nested/a.txt").toFile(), index.resolve("data/nested/a.txt"));
+      assertEquals(temp.resolve("data/").toFile(), index.resolve("data/"));
+      assertEquals(temp.resolve("b.txt").toFile(), index.resolve("b.txt"));
+      assertNull(index.resolve("data/missing.txt"));
+      assertNull(index.resolve("../b.txt"));
+      assertNull(index.resolve("./"));
+      assertNull(index.resolve("https://example.com/b.txt"));
+      assertEquals(Set.of("data", "b.txt"), index.getTopLevelFiles().stream()
+          .map(File::getName).collect(Collectors.toSet()));
+    }
+  }
+
+  @Test
+  void testResolveThroughLinks(@TempDir Path temp) throws IOException {
+    Path outside = temp.resolve("outside");
+    Path crate = temp.resolve("crate");
+    FileUtils.writeStringToFile(outside.resolve("nested/a.txt").toFile(), "a",
+        Charset.defaultCharset());
+    FileUtils.writeStringToFile(crate.resolve("data/b.txt").toFile(), "b",
+        Charset.defaultCharset());
+    try {
+      Files.createSymbolicLink(crate.resolve("linked"), outside);
+      Files.createSymbolicLink(crate.resolve("data/inner"), outside.resolve("nested"));
+      Files.createSymbolicLink(crate.resolve("data/loop"), crate.resolve("data"));
+    } catch (UnsupportedOperationException | IOException e) {
+      Assumptions.assumeTrue(false, "symbolic links are not supported here");
+    }
+
+    for (boolean parallel : new boolean[] {false, true}) {
+      DirectoryIndex index = DirectoryIndex.build(crate.toFile(), parallel);
+      assertEquals(crate.resolve("linked/nested/a.txt").toFile(),
+          index.resolve("linked/nested/a.txt"));
+      assertEquals(crate.resolve("data/inner/a.txt").toFile(), index.resolve("data/inner/a.txt"));
+      assertEquals(crate.resolve("data/b.txt").toFile(), index.resolve("data/b.txt"));
+      // a link back to a parent folder is in the index, without walking it again
+      assertEquals(crate.resolve("data/loop").toFile(), index.resolve("data/loop"));
+    }
+  }
+
+  @Test
+  void testParallelListingRead() throws IOException {
+    String location = DirectoryIndexTest.class.getResource("/crates/workflowhub/workflow1")
+        .getPath();
+    Crate expected = new RoCrateReader(new FolderReader()).readCrate(location);
+    RoCrateReader reader = new RoCrateReader(new FolderReader());
+    reader.setParallelListing(true);
+    Crate res = reader.readCrate(location);
+    HelpFunctions.compareTwoCrateJson(expected, res);
+    assertEquals(expected.getUntrackedFiles().size(), res.getUntrackedFiles().size());
+    assertNotNull(res.getDataEntityById("README.md").getSource());
+    assertEquals(
+        expected.getDataEntityById("README.md").getSource(),
+        res.getDataEntityById("README.md").getSource());
+  }
+}
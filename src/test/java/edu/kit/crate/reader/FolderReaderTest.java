@@ -7,9 +7,16 @@ import edu.kit.crate.writer.FolderWriter;
 import edu.kit.crate.writer.RoCrateWriter;
 import edu.kit.crate.HelpFunctions;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -22,6 +29,34 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class FolderReaderTest {
 
+  /**
+   * Writes the metadata of a crate with one data entity to a folder,
+   * with the graph in reverse order, so the root comes before the descriptor.
+   *
+   * @param folder the folder of the crate.
+   * @return the written crate.
+   */
+  private static RoCrate writeCrateWithReversedGraph(Path folder) throws IOException {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .addDataEntity(
+            new FileEntity.FileEntityBuilder()
+                .setId("https://example.com/survey-responses-2019.csv")
+                .addProperty("name", "Survey responses")
+                .build()
+        )
+        .build();
+    ObjectNode metadata = (ObjectNode) MyObjectMapper.getMapper()
+        .readTree(roCrate.getJsonMetadata());
+    ArrayNode graph = (ArrayNode) metadata.get("@graph");
+    ArrayNode reversed = metadata.putArray("@graph");
+    for (int i = graph.size() - 1; i >= 0; i--) {
+      reversed.add(graph.get(i));
+    }
+    FileUtils.writeStringToFile(folder.resolve("ro-crate-metadata.json").toFile(),
+        metadata.toPrettyString(), Charset.defaultCharset());
+    return roCrate;
+  }
+
   @Test
   void testReadingBasicCrate(@TempDir Path temp) throws IOException {
     RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
@@ -154,4 +189,175 @@ public class FolderReaderTest {
     assertFalse(HelpFunctions.compareTwoDir(locationSource.toFile(), destinationDir.toFile()));
     HelpFunctions.compareTwoMetadataJsonNotEqual(roCrate, res);
   }
+
+  @Test
+  void testStreamingReadEqualsTreeRead() throws IOException {
+    for (String crate : List.of("/crates/workflowhub/workflow1", "/crates/other/idrc_project",
+        "/crates/simple_crate")) {
+      String location = FolderReaderTest.class.getResource(crate).getPath();
+      Crate expected = new RoCrateReader(new FolderReader()).readCrate(location);
+      RoCrateReader streamingReader = new RoCrateReader(new FolderReader());
+      streamingReader.setStreaming(true);
+      Crate res = streamingReader.readCrate(location);
+
+      HelpFunctions.compareTwoCrateJson(expected, res);
+      assertEquals(expected.getAllDataEntities().size(), res.getAllDataEntities().size());
+      assertEquals(expected.getUntrackedFiles().size(), res.getUntrackedFiles().size());
+    }
+  }
+
+  @Test
+  void testStreamingReadWithRootBeforeDescriptor(@TempDir Path temp) throws IOException {
+    RoCrate roCrate = writeCrateWithReversedGraph(temp);
+
+    RoCrateReader streamingReader = new RoCrateReader(new FolderReader());
+    streamingReader.setStreaming(true);
+    Crate res = streamingReader.readCrate(temp.toFile().toString());
+    HelpFunctions.compareTwoCrateJson(roCrate, res);
+    assertNotNull(res.getDataEntityById("https://example.com/survey-responses-2019.csv"));
+  }
+
+  @Test
+  void testParallelReadEqualsSequentialRead() throws IOException {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (String crate : List.of("/crates/workflowhub/workflow1",
+          "/crates/other/idrc_project")) {
+        String location = FolderReaderTest.class.getResource(crate).getPath();
+        Crate expected = new RoCrateReader(new FolderReader()).readCrate(location);
+        RoCrateReader parallelReader = new RoCrateReader(new FolderReader());
+        parallelReader.setMaterializationPool(pool);
+        Crate res = parallelReader.readCrate(location);
+
+        HelpFunctions.compareTwoCrateJson(expected, res);
+        assertEquals(expected.getAllDataEntities().size(), res.getAllDataEntities().size());
+        assertEquals(expected.getUntrackedFiles().size(), res.getUntrackedFiles().size());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testLazyReadEqualsTreeRead() throws IOException {
+    for (String crate : List.of("/crates/workflowhub/workflow1", "/crates/other/idrc_project",
+        "/crates/simple_crate")) {
+      String location = FolderReaderTest.class.getResource(crate).getPath();
+      Crate expected = new RoCrateReader(new FolderReader()).readCrate(location);
+      RoCrateReader lazyReader = new RoCrateReader(new FolderReader());
+      lazyReader.setLazy(true);
+      Crate res = lazyReader.readCrate(location);
+
+      assertEquals(expected.getUntrackedFiles().size(), res.getUntrackedFiles().size());
+      HelpFunctions.compareTwoCrateJson(expected, res);
+      assertEquals(expected.getAllDataEntities().size(), res.getAllDataEntities().size());
+    }
+  }
+
+  @Test
+  void testLazyReadBuildsEntitiesOnLookup() throws IOException {
+    String location = FolderReaderTest.class.getResource("/crates/workflowhub/workflow1")
+        .getPath();
+    Crate expected = new RoCrateReader(new FolderReader()).readCrate(location);
+    RoCrateReader lazyReader = new RoCrateReader(new FolderReader());
+    lazyReader.setLazy(true);
+    Crate res = lazyReader.readCrate(location);
+
+    assertNotNull(res.getRootDataEntity());
+    assertNotNull(res.getJsonDescriptor());
+    assertNotNull(res.getDataEntityById("variation-reporting.ga"));
+    assertNotNull(res.getDataEntityById("variation-reporting.ga").getSource());
+    assertNull(res.getContextualEntityById("variation-reporting.ga"));
+    assertNull(res.getEntityById("not-in-the-crate"));
+    assertEquals(expected.getEntitiesByType("File").size(),
+        res.getEntitiesByType("File").size());
+
+    res.deleteEntityById("README.md");
+    assertNull(res.getEntityById("README.md"));
+    assertEquals(expected.getAllDataEntities().size() - 1, res.getAllDataEntities().size());
+  }
+
+  @Test
+  void testLazyReadWithRootBeforeDescriptor(@TempDir Path temp) throws IOException {
+    RoCrate roCrate = writeCrateWithReversedGraph(temp);
+
+    RoCrateReader lazyReader = new RoCrateReader(new FolderReader());
+    lazyReader.setLazy(true);
+    Crate res = lazyReader.readCrate(temp.toFile().toString());
+    assertNotNull(res.getDataEntityById("https://example.com/survey-responses-2019.csv"));
+    HelpFunctions.compareTwoCrateJson(roCrate, res);
+  }
+
+  @Test
+  void testSeveralDescriptorsWithRootBeforeDescriptor(@TempDir Path temp) throws IOException {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .addDataEntity(
+            new FileEntity.FileEntityBuilder()
+                .setId("https://example.com/survey-responses-2019.csv")
+                .addProperty("name", "Survey responses")
+                .build()
+        )
+        .build();
+    ObjectNode metadata = (ObjectNode) MyObjectMapper.getMapper()
+        .readTree(roCrate.getJsonMetadata());
+    ObjectNode descriptor = null;
+    ObjectNode root = null;
+    ArrayNode graph = metadata.putArray("@graph");
+    for (var node : MyObjectMapper.getMapper().readTree(roCrate.getJsonMetadata()).get("@graph")) {
+      if (node.get("@id").asText().equals("ro-crate-metadata.json")) {
+        descriptor = (ObjectNode) node;
+      } else if (node.get("@id").asText().equals("./")) {
+        root = (ObjectNode) node;
+      } else {
+        graph.add(node);
+      }
+    }
+    // the root comes first, followed by a descriptor of something that is not in the graph
+    graph.insert(0, root);
+    ObjectNode otherDescriptor = descriptor.deepCopy();
+    otherDescriptor.put("@id", "#other-descriptor");
+    otherDescriptor.putObject("about").put("@id", "#not-in-the-graph");
+    graph.add(otherDescriptor);
+    graph.add(descriptor);
+    Path f = temp.resolve("ro-crate-metadata.json");
+    FileUtils.writeStringToFile(f.toFile(), metadata.toPrettyString(), Charset.defaultCharset());
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      for (int mode = 0; mode < 4; mode++) {
+        RoCrateReader reader = new RoCrateReader(new FolderReader());
+        reader.setStreaming(mode == 1);
+        reader.setLazy(mode == 2);
+        reader.setMaterializationPool(mode == 3 ? pool : null);
+        Crate res = reader.readCrate(temp.toFile().toString());
+        assertEquals("ro-crate-metadata.json", res.getJsonDescriptor().getId());
+        assertEquals("./", res.getRootDataEntity().getId());
+        assertNotNull(res.getContextualEntityById("#other-descriptor"));
+        assertNotNull(res.getDataEntityById("https://example.com/survey-responses-2019.csv"));
+        assertEquals(1, res.getAllDataEntities().size());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testLazyReadKeepsEntitiesThatCannotBeRead(@TempDir Path temp) throws IOException {
+    writeCrateWithReversedGraph(temp);
+    File metadata = temp.resolve("ro-crate-metadata.json").toFile();
+    byte[] content = FileUtils.readFileToByteArray(metadata);
+
+    RoCrateReader lazyReader = new RoCrateReader(new FolderReader());
+    lazyReader.setLazy(true);
+    Crate res = lazyReader.readCrate(temp.toFile().toString());
+
+    // the entity can not be read while the metadata file is broken
+    byte[] broken = new byte[content.length];
+    Arrays.fill(broken, (byte) ' ');
+    FileUtils.writeByteArrayToFile(metadata, broken);
+    assertNull(res.getDataEntityById("https://example.com/survey-responses-2019.csv"));
+
+    FileUtils.writeByteArrayToFile(metadata, content);
+    assertNotNull(res.getDataEntityById("https://example.com/survey-responses-2019.csv"));
+  }
 }
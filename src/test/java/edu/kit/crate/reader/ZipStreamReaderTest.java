@@ -0,0 +1,165 @@
+package edu.kit.crate.reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.crate.Crate;
+import edu.kit.crate.HelpFunctions;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.data.DataSetEntity;
+import edu.kit.crate.entities.data.FileEntity;
+import edu.kit.crate.entities.data.ZipEntrySource;
+import edu.kit.crate.special.ZipStreamUtil;
+import edu.kit.crate.writer.FolderWriter;
+import edu.kit.crate.writer.RoCrateWriter;
+import edu.kit.crate.writer.ZipStreamWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Objects;
+import net.lingala.zip4j.io.outputstream.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ZipStreamReaderTest {
+
+  @Test
+  void testReadingBasicCrate(@TempDir Path temp) throws IOException {
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .build();
+
+    Path zipPath = temp.resolve("result.zip");
+    RoCrateWriter roCrateZipWriter = new RoCrateWriter(new ZipStreamWriter());
+    roCrateZipWriter.save(roCrate, zipPath.toString());
+
+    RoCrateReader roCrateZipReader = new RoCrateReader(new ZipStreamReader());
+    Crate res = roCrateZipReader.readCrate(zipPath.toString());
+    HelpFunctions.compareTwoCrateJson(roCrate, res);
+  }
+
+  @Test
+  void testWithFileAndFolder(@TempDir Path temp) throws IOException {
+    Path file = temp.resolve("survey-responses-2019.csv");
+    FileUtils.writeStringToFile(file.toFile(), "fakecsv.1", Charset.defaultCharset());
+    Path folder = temp.resolve("dir");
+    FileUtils.writeStringToFile(folder.resolve("first.txt").toFile(),
+        "content of first file in dir", Charset.defaultCharset());
+    FileUtils.writeStringToFile(folder.resolve("inner").resolve("second.txt").toFile(),
+        "content of second file in dir", Charset.defaultCharset());
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .addDataEntity(
+            new FileEntity.FileEntityBuilder()
+                .setId("survey-responses-2019.csv")
+                .addProperty("name", "Survey responses")
+                .setSource(file.toFile())
+                .build()
+        )
+        .addDataEntity(
+            new DataSetEntity.DataSetBuilder()
+                .setId("dir/")
+                .addProperty("name", "folder")
+                .setSource(folder.toFile())
+                .build()
+        )
+        .build();
+
+    Path zipPath = temp.resolve("result.zip");
+    RoCrateWriter roCrateZipWriter = new RoCrateWriter(new ZipStreamWriter());
+    roCrateZipWriter.save(roCrate, zipPath.toString());
+
+    RoCrateReader roCrateZipReader = new RoCrateReader(new ZipStreamReader());
+    Crate res = roCrateZipReader.readCrate(zipPath.toString());
+    HelpFunctions.compareTwoCrateJson(roCrate, res);
+
+    // the data entities are backed by the entries of the archive
+    assertNotNull(res.getDataEntityById("survey-responses-2019.csv").getEntrySource());
+    assertNotNull(res.getDataEntityById("dir/").getEntrySource());
+    assertTrue(res.getUntrackedFiles().isEmpty());
+
+    Path locationSource = temp.resolve("expected");
+    RoCrateWriter writer = new RoCrateWriter(new FolderWriter());
+    writer.save(roCrate, locationSource.toString());
+    Path destinationDir = temp.resolve("result");
+    writer.save(res, destinationDir.toString());
+    assertTrue(HelpFunctions.compareTwoDir(locationSource.toFile(), destinationDir.toFile()));
+    assertTrue(destinationDir.resolve("dir").resolve("inner").resolve("second.txt")
+        .toFile().exists());
+
+    // the lazy source can also be extracted on demand
+    File extracted = res.getDataEntityById("survey-responses-2019.csv").getSource();
+    assertEquals("fakecsv.1", FileUtils.readFileToString(extracted, Charset.defaultCharset()));
+  }
+
+  @Test
+  void testUntrackedFiles(@TempDir Path temp) throws IOException {
+    Path untracked = temp.resolve("README.md");
+    FileUtils.writeStringToFile(untracked.toFile(), "not in the metadata",
+        Charset.defaultCharset());
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .addUntrackedFile(untracked.toFile())
+        .build();
+    Path folder = temp.resolve("crate");
+    new RoCrateWriter(new FolderWriter()).save(roCrate, folder.toString());
+
+    // zip the content of the crate folder
+    Path zipPath = temp.resolve("result.zip");
+    try (ZipOutputStream zipStream =
+        new ZipOutputStream(FileUtils.openOutputStream(zipPath.toFile()))) {
+      for (File file : Objects.requireNonNull(folder.toFile().listFiles())) {
+        ZipStreamUtil.addFileToZipStream(file, file.getName(), zipStream);
+      }
+    }
+
+    RoCrateReader reader = new RoCrateReader(new ZipStreamReader());
+    // the same reader is used twice, every read should find the untracked file
+    for (int i = 0; i < 2; i++) {
+      Crate res = reader.readCrate(zipPath.toString());
+      assertEquals(1, res.getUntrackedFiles().size());
+      File file = res.getUntrackedFiles().get(0);
+      assertEquals("README.md", file.getName());
+      assertEquals("not in the metadata",
+          FileUtils.readFileToString(file, Charset.defaultCharset()));
+    }
+  }
+
+  @Test
+  void testEntryOutsideOfTheFolderIsRejected(@TempDir Path temp) throws IOException {
+    Path folder = temp.resolve("dir");
+    FileUtils.writeStringToFile(folder.resolve("first.txt").toFile(),
+        "content of first file in dir", Charset.defaultCharset());
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .addDataEntity(
+            new DataSetEntity.DataSetBuilder()
+                .setId("dir/")
+                .addProperty("name", "folder")
+                .build()
+        )
+        .build();
+    Path metadata = temp.resolve("ro-crate-metadata.json");
+    FileUtils.writeStringToFile(metadata.toFile(), roCrate.getJsonMetadata(),
+        Charset.defaultCharset());
+
+    // an entry of the folder that points outside of it
+    Path zipPath = temp.resolve("result.zip");
+    try (ZipOutputStream zipStream =
+        new ZipOutputStream(FileUtils.openOutputStream(zipPath.toFile()))) {
+      ZipStreamUtil.addFileToZipStream(metadata.toFile(), "ro-crate-metadata.json", zipStream);
+      ZipStreamUtil.addFileToZipStream(folder.resolve("first.txt").toFile(),
+          "dir/first.txt", zipStream);
+      ZipStreamUtil.addFileToZipStream(folder.resolve("first.txt").toFile(),
+          "dir/../evil.txt", zipStream);
+    }
+
+    Crate res = new RoCrateReader(new ZipStreamReader()).readCrate(zipPath.toString());
+    ZipEntrySource entrySource = res.getDataEntityById("dir/").getEntrySource();
+    assertNotNull(entrySource);
+    assertThrows(IOException.class,
+        () -> entrySource.extractTo(temp.resolve("out").toFile()));
+    assertFalse(temp.resolve("evil.txt").toFile().exists());
+  }
+}
@@ -0,0 +1,135 @@
+package edu.kit.crate.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.contextual.ContextualEntity;
+import edu.kit.crate.entities.data.RootDataEntity;
+import edu.kit.crate.entities.validation.EntityValidation;
+import edu.kit.crate.entities.validation.EntityValidationStrategy;
+import edu.kit.crate.payload.RoCratePayload;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalValidationTest {
+
+  private RoCratePayload payload;
+  private RootDataEntity root;
+  private ContextualEntity descriptor;
+  private CountingStrategy strategy;
+  private IncrementalValidation validation;
+
+  /**
+   * Strategy that counts the checked entities and rejects the ones with an "invalid" property.
+   */
+  private static class CountingStrategy implements EntityValidationStrategy {
+    private int checked = 0;
+
+    @Override
+    public boolean validateEntity(JsonNode entity) {
+      checked++;
+      return !entity.has("invalid");
+    }
+
+    @Override
+    public boolean validateFieldOfEntity(JsonNode field) {
+      return true;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    this.payload = new RoCratePayload();
+    for (int i = 0; i < 20; i++) {
+      this.payload.addContextualEntity(new ContextualEntity.ContextualEntityBuilder()
+          .setId("#entity" + i)
+          .addType("Thing")
+          .build());
+    }
+    this.root = new RootDataEntity.RootDataEntityBuilder()
+        .addProperty("name", "root")
+        .build();
+    this.descriptor = new ContextualEntity.ContextualEntityBuilder()
+        .setId("ro-crate-metadata.json")
+        .addType("CreativeWork")
+        .build();
+    this.strategy = new CountingStrategy();
+    this.validation = new IncrementalValidation(this.payload, new EntityValidation(strategy));
+  }
+
+  @Test
+  void testOnlyChangedEntitiesAreChecked() {
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+    // all entities plus root and descriptor
+    assertEquals(22, this.strategy.checked);
+
+    for (int i = 0; i < 10; i++) {
+      this.payload.getEntityById("#entity" + i).addProperty("name", "changed");
+    }
+    this.strategy.checked = 0;
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+    assertEquals(12, this.strategy.checked);
+
+    this.strategy.checked = 0;
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+    assertEquals(2, this.strategy.checked);
+  }
+
+  @Test
+  void testInvalidStateIsKept() {
+    this.payload.getEntityById("#entity3").addProperty("invalid", "yes");
+    assertFalse(this.validation.validate(this.root, this.descriptor));
+    // nothing changed, the entity is still invalid
+    assertFalse(this.validation.validate(this.root, this.descriptor));
+
+    this.payload.removeEntityById("#entity3");
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+  }
+
+  @Test
+  void testChangedEntitiesAreCheckedOnPool() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      this.validation.setPool(pool);
+      assertTrue(this.validation.validate(this.root, this.descriptor));
+      this.payload.getEntityById("#entity7").addProperty("invalid", "yes");
+      assertFalse(this.validation.validate(this.root, this.descriptor));
+      this.payload.getEntityById("#entity7").addProperty("name", "still invalid");
+      assertFalse(this.validation.validate(this.root, this.descriptor));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testChangesThroughPropertiesAreChecked() {
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+    // the live properties are changed without any notification
+    this.payload.getEntityById("#entity5").getProperties().put("invalid", "yes");
+    assertFalse(this.validation.validate(this.root, this.descriptor));
+
+    this.payload.getEntityById("#entity5").getProperties().remove("invalid");
+    assertTrue(this.validation.validate(this.root, this.descriptor));
+  }
+
+  @Test
+  void testChangesOnACrateThroughPropertiesAreChecked() {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description")
+        .addContextualEntity(new ContextualEntity.ContextualEntityBuilder()
+            .setId("#person")
+            .addType("Person")
+            .build())
+        .build();
+    assertTrue(crate.validate());
+    // an entity of the graph can not contain another entity
+    ObjectNode nested = crate.getEntityById("#person").getProperties().putObject("knows");
+    nested.put("@id", "#other");
+    nested.put("name", "Other");
+    assertFalse(crate.validate());
+  }
+}
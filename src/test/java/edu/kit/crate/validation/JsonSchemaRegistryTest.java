@@ -0,0 +1,32 @@
+package edu.kit.crate.validation;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.crate.objectmapper.MyObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+
+public class JsonSchemaRegistryTest {
+
+  @Test
+  void sameUriIsCompiledOnce() throws URISyntaxException {
+    URI uri = Objects.requireNonNull(
+        JsonSchemaRegistryTest.class.getResource("/crates/validation/workflowschema.json")).toURI();
+    assertSame(JsonSchemaRegistry.getSchema(uri), JsonSchemaRegistry.getSchema(uri));
+  }
+
+  @Test
+  void nodesAreNotCached() throws IOException {
+    InputStream inputStream =
+        JsonSchemaRegistryTest.class.getResourceAsStream("/crates/validation/workflowschema.json");
+    JsonNode schema = MyObjectMapper.getMapper().readTree(inputStream);
+    // a validator compiles its schema once, the registry keeps no tree
+    assertNotSame(JsonSchemaRegistry.compile(schema), JsonSchemaRegistry.compile(schema));
+  }
+}
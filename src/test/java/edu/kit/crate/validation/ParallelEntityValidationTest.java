@@ -0,0 +1,88 @@
+package edu.kit.crate.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.context.RoCrateMetadataContext;
+import edu.kit.crate.entities.contextual.ContextualEntity;
+import edu.kit.crate.entities.validation.EntityValidation;
+import edu.kit.crate.entities.validation.EntityValidationStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ParallelEntityValidationTest {
+
+  /**
+   * Strategy that rejects the entities with an "invalid" property.
+   */
+  private static class RejectingStrategy implements EntityValidationStrategy {
+    @Override
+    public boolean validateEntity(JsonNode entity) {
+      return !entity.has("invalid");
+    }
+
+    @Override
+    public boolean validateFieldOfEntity(JsonNode field) {
+      return true;
+    }
+  }
+
+  @Test
+  void testReportsOfAllChunksAreMerged() {
+    List<ContextualEntity> entities = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ContextualEntity.ContextualEntityBuilder builder =
+          new ContextualEntity.ContextualEntityBuilder()
+              .setId("#entity" + i)
+              .addType("Thing");
+      if (i % 100 == 0) {
+        builder.addProperty("invalid", "yes");
+      }
+      entities.add(builder.build());
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      EntityValidationReport report = new ParallelEntityValidation(pool,
+          new EntityValidation(new RejectingStrategy()), null).validate(entities);
+      assertFalse(report.isValid());
+      assertEquals(1000, report.getCheckedEntities());
+      assertEquals(10, report.getInvalidEntities().size());
+      assertTrue(report.getInvalidEntities().contains("#entity500"));
+      assertTrue(report.getEntitiesMissingFromContext().isEmpty());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testCrateEntitiesAreCheckedAgainstContext() {
+    RoCrate crate = new RoCrate.RoCrateBuilder("name", "description")
+        .addContextualEntity(new ContextualEntity.ContextualEntityBuilder()
+            .setId("#known")
+            .addType("Person")
+            .addProperty("name", "Joe")
+            .build())
+        .addContextualEntity(new ContextualEntity.ContextualEntityBuilder()
+            .setId("#unknown")
+            .addType("Person")
+            .addProperty("notATermOfTheContext", "value")
+            .build())
+        .setContext(new RoCrateMetadataContext())
+        .build();
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      EntityValidationReport report = crate.validateEntities(pool);
+      // the two entities, the root and the descriptor
+      assertEquals(4, report.getCheckedEntities());
+      assertEquals(Set.of("#unknown"), report.getEntitiesMissingFromContext());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
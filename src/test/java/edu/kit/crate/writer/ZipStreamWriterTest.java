@@ -0,0 +1,122 @@
+package edu.kit.crate.writer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.kit.crate.HelpFunctions;
+import edu.kit.crate.RoCrate;
+import edu.kit.crate.entities.data.DataSetEntity;
+import edu.kit.crate.entities.data.FileEntity;
+import edu.kit.crate.preview.AutomaticPreview;
+import edu.kit.crate.preview.CratePreview;
+import edu.kit.crate.preview.PreviewGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import net.lingala.zip4j.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ZipStreamWriterTest {
+
+  @Test
+  void testWritingToZipStream(@TempDir Path tempDir) throws IOException {
+    // create the RO_crate directory in the tempDir
+    Path roDir = tempDir.resolve("ro_dir");
+    FileUtils.forceMkdir(roDir.toFile());
+
+    // the .json of our crate
+    InputStream fileJson =
+        ZipStreamWriterTest.class.getResourceAsStream("/json/crate/fileAndDir.json");
+
+    // fill the expected directory with files and dirs
+    Path json = roDir.resolve("ro-crate-metadata.json");
+    FileUtils.copyInputStreamToFile(fileJson, json.toFile());
+
+    PreviewGenerator.generatePreview(roDir.toString());
+
+    Path file1 = roDir.resolve("cp7glop.ai");
+    FileUtils.writeStringToFile(file1.toFile(), "content of Local File", Charset.defaultCharset());
+    Path dirInCrate = roDir.resolve("dir");
+    FileUtils.forceMkdir(dirInCrate.toFile());
+    FileUtils.writeStringToFile(dirInCrate.resolve("first.txt").toFile(),
+        "content of first file in dir", Charset.defaultCharset());
+    FileUtils.writeStringToFile(dirInCrate.resolve("second.txt").toFile(),
+        "content of second file in dir",
+        Charset.defaultCharset());
+    FileUtils.writeStringToFile(dirInCrate.resolve("third.txt").toFile(),
+        "content of third file in dir",
+        Charset.defaultCharset());
+
+    // create the RO_Crate including the files that should be present in it
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("Example RO-Crate",
+        "The RO-Crate Root Data Entity")
+        .addDataEntity(
+            new FileEntity.FileEntityBuilder()
+                .setId("cp7glop.ai")
+                .addProperty("name", "Diagram showing trend to increase")
+                .addProperty("contentSize", "383766")
+                .addProperty("description", "Illustrator file for Glop Pot")
+                .setEncodingFormat("application/pdf")
+                .setSource(file1.toFile())
+                .build()
+        )
+        .addDataEntity(
+            new DataSetEntity.DataSetBuilder()
+                .setId("lots_of_little_files/")
+                .addProperty("name", "Too many files")
+                .addProperty("description",
+                    "This directory contains many small files, that we're not going to describe in detail.")
+                .setSource(dirInCrate.toFile())
+                .build()
+        )
+        .setPreview(new AutomaticPreview())
+        .build();
+
+    Path test = tempDir.resolve("test.zip");
+    RoCrateWriter roCrateZipWriter = new RoCrateWriter(new ZipStreamWriter());
+    roCrateZipWriter.save(roCrate, test.toString());
+    Path res = tempDir.resolve("dest");
+    new ZipFile(test.toFile()).extractAll(res.toString());
+    assertTrue(HelpFunctions.compareTwoDir(roDir.toFile(), res.toFile()));
+
+    // the folder is written under the id of the dataset
+    assertTrue(res.resolve("lots_of_little_files").resolve("first.txt").toFile().exists());
+    HelpFunctions.compareCrateJsonToFileInResources(
+        res.resolve("ro-crate-metadata.json").toFile(), json.toFile());
+  }
+
+  @Test
+  void testPreviewWithoutStreamSupport(@TempDir Path tempDir) throws IOException {
+    // a preview that only knows how to save itself to a folder
+    CratePreview preview = new CratePreview() {
+      @Override
+      public void saveAllToZip(ZipFile zipFile) {
+      }
+
+      @Override
+      public void saveAllToFolder(File folder) {
+        try {
+          FileUtils.writeStringToFile(new File(folder, "ro-crate-preview.html"),
+              "<html></html>", Charset.defaultCharset());
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      }
+    };
+    RoCrate roCrate = new RoCrate.RoCrateBuilder("minimal", "minimal RO_crate")
+        .setPreview(preview)
+        .build();
+
+    Path test = tempDir.resolve("test.zip");
+    new RoCrateWriter(new ZipStreamWriter()).save(roCrate, test.toString());
+    Path res = tempDir.resolve("dest");
+    new ZipFile(test.toFile()).extractAll(res.toString());
+    assertEquals("<html></html>", FileUtils.readFileToString(
+        res.resolve("ro-crate-preview.html").toFile(), Charset.defaultCharset()));
+    assertTrue(res.resolve("ro-crate-metadata.json").toFile().exists());
+  }
+}